@@ -4,20 +4,19 @@ CREATE DATABASE train_reservation_system;
 -- 2. Select the database to use for the following commands.
 USE train_reservation_system;
 
--- 3. Create the 'users' table to store user information.
--- Passwords are not stored directly; a hashed version is stored for security.
-CREATE TABLE users (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) NOT NULL UNIQUE,
-    password VARCHAR(255) NOT NULL,
-    email VARCHAR(100) NOT NULL UNIQUE,
-    enabled BOOLEAN NOT NULL DEFAULT TRUE -- Used for deactivating accounts.
-);
--- 4. Insert sample users for testing
-INSERT INTO users (username, email, password, role, active, created_at, updated_at) VALUES
-('john_doe', 'john@example.com', '$2a$10$exampleHashedPassword1', 'PASSENGER', TRUE, NOW(), NOW()),
-('admin_user', 'admin@example.com', '$2a$10$exampleHashedPassword2', 'ADMIN', TRUE, NOW(), NOW()),
-('staff_member', 'staff@example.com', '$2a$10$exampleHashedPassword3', 'STAFF', TRUE, NOW(), NOW());
+-- 3. Tables are created by the service on startup from its Flyway migrations
+-- (user-authentication/src/main/resources/db/migration); do not create them by hand.
+-- Passwords are not stored directly; a BCrypt hash is stored for security.
+
+-- 4. Insert sample users for testing, once the service has migrated the database.
+-- Ids come from users_seq, so take them from there and move it past the new rows.
+INSERT INTO users (id, username, email, password, role, active, created_at, updated_at)
+SELECT next_val, 'john_doe', 'john@example.com', '$2a$10$exampleHashedPassword1', 'PASSENGER', TRUE, NOW(), NOW() FROM users_seq
+UNION ALL
+SELECT next_val + 1, 'admin_user', 'admin@example.com', '$2a$10$exampleHashedPassword2', 'ADMIN', TRUE, NOW(), NOW() FROM users_seq
+UNION ALL
+SELECT next_val + 2, 'staff_member', 'staff@example.com', '$2a$10$exampleHashedPassword3', 'STAFF', TRUE, NOW(), NOW() FROM users_seq;
+UPDATE users_seq SET next_val = next_val + 3;
 
 -- Get total count of users for each role
 SELECT 
@@ -0,0 +1,61 @@
+package com.trainreservation.auth.benchmark;
+
+import com.trainreservation.auth.exception.AuthException;
+import com.trainreservation.auth.exception.ErrorCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throwing and catching a failure from some call depth below the handler: a fresh
+ * RuntimeException, which fills in its stack trace, against the shared stackless AuthException
+ * of an ErrorCode. Run with -prof gc to compare allocation per failure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthFailureBenchmark {
+
+    // Roughly the frames between a service method and the exception handler
+    @Param({"10", "60"})
+    public int depth;
+
+    @Benchmark
+    public String runtimeException() {
+        try {
+            return fail(depth, false);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String errorCode() {
+        try {
+            return fail(depth, true);
+        } catch (AuthException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String fail(int depth, boolean errorCode) {
+        if (depth > 0) {
+            return fail(depth - 1, errorCode);
+        }
+        if (errorCode) {
+            throw ErrorCode.USER_NOT_FOUND.exception();
+        }
+        throw new RuntimeException("User not found");
+    }
+}
@@ -0,0 +1,94 @@
+package com.trainreservation.auth.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.User;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.util.DTOMapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cost of turning rows into DTOs and DTOs into JSON, per list of users.
+ *
+ * createUserDTO copies a hydrated User entity; the projection constructor is what Hibernate
+ * calls for the JPQL constructor expressions in UserRepository. Serialization uses an
+ * ObjectMapper configured the way Spring Boot configures the one behind the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private List<User> entities;
+    private List<Object[]> rows;
+    private List<UserDTO> dtos;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        entities = new ArrayList<>(size);
+        rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            UserRole role = UserRole.values()[i % UserRole.values().length];
+            entities.add(new User((long) i + 1, "passenger" + i, "passenger" + i + "@lankarail.lk",
+                    "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5pZ1YpI6JQw9kW1kX1uT1fK", role, true, now, now, null, 0, 0));
+            rows.add(new Object[]{(long) i + 1, "passenger" + i, "passenger" + i + "@lankarail.lk", role, true});
+        }
+        dtos = mapEntities();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, UserDTO.class));
+    }
+
+    @Benchmark
+    public List<UserDTO> mapEntities() {
+        List<UserDTO> result = new ArrayList<>(entities.size());
+        for (User user : entities) {
+            result.add(DTOMapperFactory.createUserDTO(user));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<UserDTO> mapProjectionRows() {
+        List<UserDTO> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new UserDTO((Long) row[0], (String) row[1], (String) row[2], (UserRole) row[3], (Boolean) row[4]));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serializeListWithPreparedWriter() throws Exception {
+        return listWriter.writeValueAsBytes(dtos);
+    }
+}
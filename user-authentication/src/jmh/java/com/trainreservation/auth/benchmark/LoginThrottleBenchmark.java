@@ -0,0 +1,67 @@
+package com.trainreservation.auth.benchmark;
+
+import com.trainreservation.auth.security.LoginThrottle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of one LoginThrottle.check while 8 threads hammer a handful of hot buckets, so nearly
+ * every check races on the same CAS. The limits are high enough that no check is refused.
+ * Compare hotKeys=1 with a spread-out load to see what the contention adds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class LoginThrottleBenchmark {
+
+    @Param({"1", "4", "1024"})
+    public int hotKeys;
+
+    private LoginThrottle throttle;
+    private String[] ips;
+    private String[] identifiers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        throttle = new LoginThrottle(true, 1_000_000_000, Duration.ofSeconds(1),
+                1_000_000_000, Duration.ofSeconds(1), 100, Duration.ofMinutes(1), 10_000);
+        ips = new String[hotKeys];
+        identifiers = new String[hotKeys];
+        for (int i = 0; i < hotKeys; i++) {
+            ips[i] = "10.0." + (i / 256) + "." + (i % 256);
+            identifiers[i] = "hot-user-" + i;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        private int next = THREADS.getAndIncrement();
+    }
+
+    @Benchmark
+    public void check(Caller caller) {
+        int key = caller.next++ % hotKeys;
+        throttle.check(ips[key], identifiers[key]);
+    }
+}
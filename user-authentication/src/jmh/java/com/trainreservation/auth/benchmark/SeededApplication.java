@@ -0,0 +1,53 @@
+package com.trainreservation.auth.benchmark;
+
+import com.trainreservation.auth.UserAuthenticationApplication;
+import com.trainreservation.auth.cache.UserAvailabilityIndex;
+import com.trainreservation.auth.util.PasswordEncoderSingleton;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the service without a web server against its own in-memory H2 database (the test
+ * application.properties, BCrypt strength 4) and seeds it with passenger0..passengerN-1,
+ * ids 1..N, all sharing PASSWORD.
+ */
+final class SeededApplication {
+
+    static final String PASSWORD = "secret123";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private SeededApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String name, int users) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UserAuthenticationApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh-" + name + "-" + users + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN",
+                        "logging.level.com.trainreservation.auth=WARN")
+                .run();
+
+        String hash = PasswordEncoderSingleton.getInstance().encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int start = 0; start < users; start += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < Math.min(users, start + BATCH_SIZE); i++) {
+                batch.add(new Object[]{(long) i + 1, "passenger" + i, "passenger" + i + "@lankarail.lk", hash, "PASSENGER", true, now, now});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (id, username, email, password, role, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    batch);
+        }
+        context.getBean(UserAvailabilityIndex.class).build();
+        return context;
+    }
+}
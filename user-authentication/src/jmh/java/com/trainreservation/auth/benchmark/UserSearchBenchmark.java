@@ -0,0 +1,100 @@
+package com.trainreservation.auth.benchmark;
+
+import com.trainreservation.auth.util.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TrigramIndex queries for one result page (21 ids) over synthetic "first.lastN" accounts with
+ * a handful of email domains. Setup prints the index size: the estimate the app reports as
+ * auth.search.index.bytes, and the heap actually retained after a GC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST = {"kamal", "nimal", "sunil", "amara", "dilani", "ruwan", "chamari",
+            "saman", "kasun", "nadeesha", "tharindu", "ishara", "pradeep", "malini", "lahiru", "sanduni"};
+    private static final String[] LAST = {"perera", "fernando", "silva", "jayasinghe", "bandara", "dissanayake",
+            "wickramasinghe", "gunawardena", "rajapaksa", "herath", "senanayake", "karunaratne"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "lankarail.lk", "slt.lk", "outlook.com"};
+    private static final int PAGE = 21;
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long heapBefore = usedHeap();
+        index = new TrigramIndex();
+        for (int i = 0; i < users; i++) {
+            String name = FIRST[i % FIRST.length] + "." + LAST[(i / FIRST.length) % LAST.length] + i;
+            index.add(i + 1, name, name + "@" + DOMAINS[i % DOMAINS.length]);
+        }
+        long retained = usedHeap() - heapBefore;
+        System.out.printf("%nTrigramIndex over %d users: estimated %d MiB, retained heap %d MiB%n",
+                users, index.estimatedBytes() >> 20, retained >> 20);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public List<Long> exactUsername() {
+        return index.search("ruwan.silva37", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> exactEmail() {
+        return index.search("kasun.perera8@slt.lk", 0, PAGE);
+    }
+
+    // Hundreds of thousands of prefix matches; the page fills after the first few candidates
+    @Benchmark
+    public List<Long> commonPrefix() {
+        return index.search("kamal.", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> selectiveSubstring() {
+        return index.search("ando12345", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> digitsSubstring() {
+        return index.search("4242", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> twoCharacterPrefix() {
+        return index.search("ni", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> noMatch() {
+        return index.search("zzyzx", 0, PAGE);
+    }
+}
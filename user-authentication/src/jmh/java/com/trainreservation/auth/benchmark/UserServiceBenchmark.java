@@ -0,0 +1,84 @@
+package com.trainreservation.auth.benchmark;
+
+import com.trainreservation.auth.dto.LoginRequest;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.repository.UserRepository;
+import com.trainreservation.auth.service.UserService;
+import com.trainreservation.auth.util.DTOMapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserServiceImpl against embedded H2 at 1k, 100k and 1M users.
+ *
+ * Logins and id lookups pick a random user per call, so at the larger sizes most of them
+ * miss the user cache and reach the database. getAllUsers (JPQL constructor projection) is
+ * measured next to the entity path it replaced, findAll() mapped through DTOMapperFactory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class UserServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SeededApplication.start("service", users);
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO loginUser() {
+        LoginRequest request = new LoginRequest();
+        request.setUsernameOrEmail("passenger" + ThreadLocalRandom.current().nextInt(users));
+        request.setPassword(SeededApplication.PASSWORD);
+        return userService.loginUser(request);
+    }
+
+    @Benchmark
+    public UserDTO getUserById() {
+        return userService.getUserById(ThreadLocalRandom.current().nextLong(users) + 1);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<UserDTO> getAllUsers() {
+        return userService.getAllUsers();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<UserDTO> getAllUsersViaEntities() {
+        return userRepository.findAll().stream().map(DTOMapperFactory::createUserDTO).toList();
+    }
+}
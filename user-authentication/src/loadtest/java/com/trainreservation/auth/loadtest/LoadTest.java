@@ -0,0 +1,300 @@
+package com.trainreservation.auth.loadtest;
+
+import com.trainreservation.auth.UserAuthenticationApplication;
+import com.trainreservation.auth.cache.UserAvailabilityIndex;
+import com.trainreservation.auth.util.PasswordEncoderSingleton;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test against the real HTTP stack with session cookies.
+ *
+ * Boots the service on an in-memory H2 database (MySQL mode), seeds passenger0..N-1 plus one
+ * admin, logs in a pool of sessions and then issues requests on an open model: request i is
+ * due at start + i / rate whether or not earlier ones have finished, and its latency is
+ * measured from that due time, so a stalled server shows up as queueing delay instead of
+ * slowing the generator down (no coordinated omission).
+ *
+ * Settings, passed as -Dname=value (mvn -Ploadtest verify -Dloadtest.args="...") or --name=value:
+ *   load.rate       requests per second (default 200)
+ *   load.duration   measured run (default 30s), after load.warmup (default 10s)
+ *   load.users      seeded passengers (default 10000)
+ *   load.sessions   logged-in passenger sessions shared by the mix (default 200)
+ *   load.mix        endpoint weights (default login=10,current-user=60,update-profile=20,admin-users=10)
+ *   load.output     directory for the per-endpoint .hgrm percentile files
+ * Login throttling is off by default because every request comes from one address. The
+ * generator shares the JVM and CPUs with the service, so leave headroom when picking the rate.
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "secret123";
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    enum Endpoint {
+        LOGIN("login"),
+        CURRENT_USER("current-user"),
+        UPDATE_PROFILE("update-profile"),
+        ADMIN_USERS("admin-users");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+
+        static Endpoint fromLabel(String label) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.label.equals(label)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint in load.mix: " + label);
+        }
+    }
+
+    private record Session(long userId, String username, String cookie) {
+    }
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final int users;
+    private final List<Session> passengers;
+    private final Session admin;
+    private final Endpoint[] weightedEndpoints;
+
+    private LoadTest(String baseUrl, HttpClient client, int users, List<Session> passengers, Session admin,
+                     Endpoint[] weightedEndpoints) {
+        this.baseUrl = baseUrl;
+        this.client = client;
+        this.users = users;
+        this.passengers = passengers;
+        this.admin = admin;
+        this.weightedEndpoints = weightedEndpoints;
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UserAuthenticationApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "auth.throttle.enabled=false",
+                        "logging.level.com.trainreservation.auth=WARN")
+                .run(args);
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            Environment env = context.getEnvironment();
+            int rate = env.getProperty("load.rate", Integer.class, 200);
+            Duration warmup = env.getProperty("load.warmup", Duration.class, Duration.ofSeconds(10));
+            Duration duration = env.getProperty("load.duration", Duration.class, Duration.ofSeconds(30));
+            int users = env.getProperty("load.users", Integer.class, 10_000);
+            int sessions = Math.min(users, env.getProperty("load.sessions", Integer.class, 200));
+            Endpoint[] mix = parseMix(env.getProperty("load.mix", "login=10,current-user=60,update-profile=20,admin-users=10"));
+            Path output = Path.of(env.getProperty("load.output", "target/loadtest"));
+
+            seed(context, users);
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+            String baseUrl = "http://localhost:" + env.getProperty("local.server.port");
+
+            List<Session> passengers = new ArrayList<>(sessions);
+            for (int i = 0; i < sessions; i++) {
+                passengers.add(login(client, baseUrl, i + 1, "passenger" + i));
+            }
+            Session admin = login(client, baseUrl, users + 1, "admin");
+            LoadTest loadTest = new LoadTest(baseUrl, client, users, passengers, admin, mix);
+
+            System.out.printf("Seeded %d users, %d sessions; warming up for %s, then %d req/s for %s%n",
+                    users, sessions, warmup, rate, duration);
+            loadTest.run(rate, warmup, new Stats());
+            Stats stats = new Stats();
+            long elapsedNanos = loadTest.run(rate, duration, stats);
+            stats.report(elapsedNanos, output);
+        } finally {
+            clientExecutor.shutdown();
+            context.close();
+        }
+    }
+
+    // Returns the wall time from the first due time until the last response arrived
+    private long run(int rate, Duration duration, Stats stats) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long startedAt = System.nanoTime();
+        long endsAt = startedAt + duration.toNanos();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (long i = 0; ; i++) {
+            long dueAt = startedAt + i * intervalNanos;
+            if (dueAt >= endsAt) {
+                break;
+            }
+            long wait = dueAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = weightedEndpoints[ThreadLocalRandom.current().nextInt(weightedEndpoints.length)];
+            inFlight.add(client.sendAsync(request(endpoint), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> stats.record(endpoint, dueAt,
+                            error == null && response.statusCode() / 100 == 2)));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        return System.nanoTime() - startedAt;
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Session session = passengers.get(random.nextInt(passengers.size()));
+        return switch (endpoint) {
+            case LOGIN -> loginRequest(baseUrl, "passenger" + random.nextInt(users));
+            case CURRENT_USER -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/current-user"))
+                    .header("Cookie", session.cookie())
+                    .GET().build();
+            // Alternates between two addresses so most updates really change the row
+            case UPDATE_PROFILE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/users/" + session.userId() + "/profile"))
+                    .header("Cookie", session.cookie())
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + session.username()
+                            + (random.nextBoolean() ? "@lankarail.lk" : "@mail.lankarail.lk") + "\"}"))
+                    .build();
+            case ADMIN_USERS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/admin/users/page?size=50"))
+                    .header("Cookie", admin.cookie())
+                    .GET().build();
+        };
+    }
+
+    private static Session login(HttpClient client, String baseUrl, long userId, String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(loginRequest(baseUrl, username), HttpResponse.BodyHandlers.ofString());
+        String cookie = response.headers().firstValue("Set-Cookie")
+                .orElseThrow(() -> new IllegalStateException("Login failed for " + username + ": " + response.statusCode()));
+        return new Session(userId, username, cookie.substring(0, cookie.indexOf(';')));
+    }
+
+    private static HttpRequest loginRequest(String baseUrl, String username) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"usernameOrEmail\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+    }
+
+    // passenger0..N-1 get ids 1..N, the admin N+1; everyone shares PASSWORD hashed at the configured cost
+    private static void seed(ConfigurableApplicationContext context, int users) {
+        String hash = PasswordEncoderSingleton.getInstance().encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String insert = "INSERT INTO users (id, username, email, password, role, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int start = 0; start < users; start += SEED_BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = start; i < Math.min(users, start + SEED_BATCH_SIZE); i++) {
+                batch.add(new Object[]{(long) i + 1, "passenger" + i, "passenger" + i + "@lankarail.lk", hash, "PASSENGER", true, now, now});
+            }
+            jdbcTemplate.batchUpdate(insert, batch);
+        }
+        jdbcTemplate.update(insert, (long) users + 1, "admin", "admin@lankarail.lk", hash, "ADMIN", true, now, now);
+        context.getBean(UserAvailabilityIndex.class).build();
+    }
+
+    // "login=10,current-user=60" -> 10 LOGIN slots and 60 CURRENT_USER slots to draw from
+    private static Endpoint[] parseMix(String mix) {
+        List<Endpoint> slots = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Endpoint endpoint = Endpoint.fromLabel(parts[0].trim());
+            int weight = Integer.parseInt(parts[1].trim());
+            for (int i = 0; i < weight; i++) {
+                slots.add(endpoint);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no positive weights");
+        }
+        return slots.toArray(Endpoint[]::new);
+    }
+
+    // Latencies in microseconds, 3 significant digits
+    private static final class Stats {
+        private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+
+        Stats() {
+            for (Endpoint endpoint : Endpoint.values()) {
+                histograms.put(endpoint, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+                errors.put(endpoint, new AtomicLong());
+            }
+        }
+
+        void record(Endpoint endpoint, long dueAt, boolean success) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueAt);
+            histograms.get(endpoint).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (!success) {
+                errors.get(endpoint).incrementAndGet();
+            }
+        }
+
+        void report(long elapsedNanos, Path output) throws IOException {
+            Files.createDirectories(output);
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+            long totalErrors = 0;
+
+            System.out.printf("%-16s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (Endpoint endpoint : Endpoint.values()) {
+                Histogram histogram = histograms.get(endpoint);
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                total.add(histogram);
+                totalErrors += errors.get(endpoint).get();
+                print(endpoint.label, histogram, errors.get(endpoint).get(), seconds);
+                write(output.resolve(endpoint.label + ".hgrm"), histogram);
+            }
+            print("total", total, totalErrors, seconds);
+            write(output.resolve("total.hgrm"), total);
+            System.out.println("Percentile distributions written to " + output.toAbsolutePath());
+        }
+
+        private static void print(String label, Histogram histogram, long errors, double seconds) {
+            System.out.printf(Locale.ROOT, "%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    label, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                    millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        // Standard .hgrm text, values in milliseconds; plots with HdrHistogram's plotter
+        private static void write(Path file, Histogram histogram) throws IOException {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+}
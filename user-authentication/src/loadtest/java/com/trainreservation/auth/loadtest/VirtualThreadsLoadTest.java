@@ -0,0 +1,162 @@
+package com.trainreservation.auth.loadtest;
+
+import com.trainreservation.auth.UserAuthenticationApplication;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.security.AuthTokenService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Platform threads vs virtual threads at the same Hikari pool size.
+ *
+ * A flood of requests that each hold a pooled connection for HOLD_MILLIS saturates the pool,
+ * while cheap requests that need no database (token-authenticated current-user claims) arrive
+ * at the same time. With platform threads the flood also occupies every Tomcat worker, so the
+ * cheap requests queue behind it; with virtual threads only the connection pool is contended.
+ *
+ * Boots the service twice, once per mode, and reports the latency of the cheap requests and
+ * the time to drain the flood. Needs Java 21:
+ *   JAVA_HOME=/path/to/jdk-21 mvn -Pjava21,loadtest verify -Dloadtest.main=com.trainreservation.auth.loadtest.VirtualThreadsLoadTest
+ */
+public final class VirtualThreadsLoadTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int TOMCAT_THREADS = 50;
+    private static final int SLOW_REQUESTS = 400;
+    private static final int FAST_REQUESTS = 100;
+    private static final long HOLD_MILLIS = 20;
+
+    private VirtualThreadsLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            // Spring Boot silently falls back to platform threads below 21
+            throw new IllegalStateException("Virtual threads need Java 21; run with -Pjava21 on a JDK 21");
+        }
+        List<Result> results = List.of(run(false), run(true));
+
+        System.out.printf("%-16s %12s %12s %12s %14s%n", "mode", "fast p50 ms", "fast p90 ms", "fast max ms", "flood total ms");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-16s %12.1f %12.1f %12.1f %14.1f%n", result.mode,
+                    result.fastP50Millis, result.fastP90Millis, result.fastMaxMillis, result.floodMillis);
+        }
+    }
+
+    private static Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                UserAuthenticationApplication.class, BenchmarkRoutes.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.datasource.url=jdbc:h2:mem:vt-benchmark-" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "auth.mode=token",
+                        "auth.token.secret=virtual-thread-benchmark-secret-0123456789",
+                        "auth.throttle.enabled=false",
+                        "logging.level.com.trainreservation.auth=INFO")
+                .run()) {
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(16);
+            HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            UserDTO user = new UserDTO(1L, "bench", "bench@lankarail.lk", UserRole.ADMIN, true);
+            String token = context.getBean(AuthTokenService.class).issue(user);
+
+            // Warm up both paths before measuring
+            fire(mode, client, baseUrl, token, 50, 50);
+            Result result = fire(mode, client, baseUrl, token, SLOW_REQUESTS, FAST_REQUESTS);
+            clientExecutor.shutdown();
+            return result;
+        }
+    }
+
+    private static Result fire(String mode, HttpClient client, String baseUrl, String token, int slow, int fast) throws Exception {
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<HttpResponse<Void>>> flood = new ArrayList<>();
+        for (int i = 0; i < slow; i++) {
+            flood.add(client.sendAsync(request(baseUrl + "/bench/hold-connection", token), HttpResponse.BodyHandlers.discarding()));
+        }
+        // Measure only once the flood has reached the server and every connection is taken
+        while (BenchmarkRoutes.IN_FLIGHT.get() < Math.min(slow, POOL_SIZE)) {
+            Thread.sleep(1);
+        }
+
+        ExecutorService fastClients = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Double>> fastLatencies = new ArrayList<>();
+        for (int i = 0; i < fast; i++) {
+            fastLatencies.add(CompletableFuture.supplyAsync(() -> {
+                long sentAt = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(
+                            request(baseUrl + "/api/auth/current-user?claims=true", token), HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("current-user answered " + response.statusCode());
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                return (System.nanoTime() - sentAt) / 1_000_000.0;
+            }, fastClients));
+        }
+
+        double[] latencies = fastLatencies.stream().mapToDouble(CompletableFuture::join).sorted().toArray();
+        for (CompletableFuture<HttpResponse<Void>> response : flood) {
+            if (response.join().statusCode() != 200) {
+                throw new IllegalStateException("hold-connection answered " + response.join().statusCode());
+            }
+        }
+        double floodMillis = (System.nanoTime() - startedAt) / 1_000_000.0;
+        fastClients.shutdown();
+        return new Result(mode, latencies[latencies.length / 2], latencies[latencies.length * 9 / 10],
+                latencies[latencies.length - 1], floodMillis);
+    }
+
+    private static HttpRequest request(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token).GET().build();
+    }
+
+    // Stands in for a slow query: holds a pooled connection without burning CPU. Passed to the
+    // builder as a source and deliberately unannotated, so LoadTest's component scan skips it
+    static class BenchmarkRoutes {
+        static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+        @Bean
+        RouterFunction<ServerResponse> holdConnectionRoute(DataSource dataSource) {
+            return RouterFunctions.route()
+                    .GET("/bench/hold-connection", request -> {
+                        try (Connection connection = dataSource.getConnection()) {
+                            IN_FLIGHT.incrementAndGet();
+                            Thread.sleep(HOLD_MILLIS);
+                        } finally {
+                            IN_FLIGHT.decrementAndGet();
+                        }
+                        return ServerResponse.ok().body("ok");
+                    })
+                    .build();
+        }
+    }
+
+    private record Result(String mode, double fastP50Millis, double fastP90Millis,
+                          double fastMaxMillis, double floodMillis) {
+    }
+}
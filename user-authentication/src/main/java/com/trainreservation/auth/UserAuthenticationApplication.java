@@ -1,12 +1,20 @@
 package com.trainreservation.auth;
 
+import com.trainreservation.auth.cli.UserImportRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
 public class UserAuthenticationApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(UserAuthenticationApplication.class, args);
+        SpringApplication application = new SpringApplication(UserAuthenticationApplication.class);
+        // Bulk import mode: no web server, exit once the file has been loaded
+        if (UserImportRunner.isImportRun(args)) {
+            application.setWebApplicationType(WebApplicationType.NONE);
+            System.exit(SpringApplication.exit(application.run(args)));
+        }
+        application.run(args);
     }
 }
@@ -0,0 +1,225 @@
+package com.trainreservation.auth.audit;
+
+import com.trainreservation.auth.dto.AuditEventDTO;
+import com.trainreservation.auth.dto.AuditPageDTO;
+import com.trainreservation.auth.dto.AuditPageRequest;
+import com.trainreservation.auth.entity.AuditEvent;
+import com.trainreservation.auth.entity.AuditEventType;
+import com.trainreservation.auth.repository.AuditEventRepository;
+import com.trainreservation.auth.repository.AuditEventSpecifications;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail for logins and account changes that stays off the request's write path.
+ *
+ * record() only builds a small event and offers it to a lock-free ring buffer; a single writer
+ * thread drains it and batch-inserts into audit_events, one statement per batch. When the
+ * buffer is full the overflow policy decides: drop (default) discards the new event at once,
+ * wait parks the caller up to offer-timeout before dropping it. Dropped and failed events are
+ * counted in auth.audit.events.dropped, never thrown to the caller.
+ *
+ * Events are written after the fact, so the query API trails the live system by up to one
+ * flush interval.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    public enum OverflowPolicy { DROP, WAIT }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_events (type, user_id, actor_id, identifier, detail, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditEventRepository auditEventRepository;
+    private final MpscRingBuffer<Entry> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter recorded;
+    private final Counter written;
+    private final Counter droppedBufferFull;
+    private final Counter droppedWriteFailed;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public AuditLog(
+            JdbcTemplate jdbcTemplate,
+            AuditEventRepository auditEventRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.audit.enabled:true}") boolean enabled,
+            @Value("${auth.audit.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${auth.audit.overflow:drop}") OverflowPolicy overflowPolicy,
+            @Value("${auth.audit.offer-timeout:10ms}") Duration offerTimeout,
+            @Value("${auth.audit.batch-size:500}") int batchSize,
+            @Value("${auth.audit.flush-interval:200ms}") Duration flushInterval) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditEventRepository = auditEventRepository;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+
+        this.recorded = Counter.builder("auth.audit.events.recorded").register(meterRegistry);
+        this.written = Counter.builder("auth.audit.events.written").register(meterRegistry);
+        this.droppedBufferFull = Counter.builder("auth.audit.events.dropped").tag("reason", "buffer_full").register(meterRegistry);
+        this.droppedWriteFailed = Counter.builder("auth.audit.events.dropped").tag("reason", "write_failed").register(meterRegistry);
+        Gauge.builder("auth.audit.buffer.size", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            this.writer.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(AuditEventType type, Long userId, String identifier, String detail) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(type, userId, currentActorId(), truncate(identifier), truncate(detail), LocalDateTime.now());
+        recorded.increment();
+        if (!offer(entry)) {
+            droppedBufferFull.increment();
+            return;
+        }
+        // Wake the writer early once a full batch is waiting, instead of at the next flush interval
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    public void record(AuditEventType type, Long userId, String detail) {
+        record(type, userId, null, detail);
+    }
+
+    private boolean offer(Entry entry) {
+        if (buffer.offer(entry)) {
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            return false;
+        }
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        LockSupport.unpark(writer);
+        while (System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (buffer.offer(entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Transactional(readOnly = true)
+    public AuditPageDTO getPage(AuditPageRequest pageRequest) {
+        // One extra row tells whether an older page exists
+        List<AuditEvent> rows = auditEventRepository.findBy(
+                AuditEventSpecifications.withFilters(pageRequest.getType(), pageRequest.getUserId(), pageRequest.getBefore()),
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(pageRequest.getSize() + 1).all());
+        boolean hasMore = rows.size() > pageRequest.getSize();
+        List<AuditEventDTO> events = rows.stream()
+                .limit(pageRequest.getSize())
+                .map(row -> new AuditEventDTO(row.getId(), row.getType(), row.getUserId(), row.getActorId(),
+                        row.getIdentifier(), row.getDetail(), row.getOccurredAt()))
+                .toList();
+        Long nextBefore = hasMore ? events.get(events.size() - 1).getId() : null;
+        return new AuditPageDTO(events, nextBefore, hasMore);
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            buffer.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, entry) -> {
+                statement.setString(1, entry.type().name());
+                setLong(statement, 2, entry.userId());
+                setLong(statement, 3, entry.actorId());
+                statement.setString(4, entry.identifier());
+                statement.setString(5, entry.detail());
+                statement.setTimestamp(6, Timestamp.valueOf(entry.occurredAt()));
+            });
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            // The audit trail must never take the service down; count the loss and carry on
+            droppedWriteFailed.increment(batch.size());
+            log.warn("Dropped {} audit events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static void setLong(PreparedStatement statement, int index, Long value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.BIGINT);
+        } else {
+            statement.setLong(index, value);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The writer finishes what is buffered before it exits
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthPrincipal principal
+                ? principal.getId() : null;
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_TEXT_LENGTH ? value : value.substring(0, MAX_TEXT_LENGTH);
+    }
+
+    private record Entry(AuditEventType type, Long userId, Long actorId, String identifier, String detail,
+                         LocalDateTime occurredAt) {
+    }
+}
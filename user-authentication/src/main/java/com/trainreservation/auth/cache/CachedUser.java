@@ -0,0 +1,25 @@
+package com.trainreservation.auth.cache;
+
+import com.trainreservation.auth.entity.User;
+import com.trainreservation.auth.entity.UserRole;
+import lombok.Value;
+
+/**
+ * Immutable snapshot of a users row held by UserCache.
+ * Keeps the password hash so cached logins can be verified without a database read.
+ */
+@Value
+public class CachedUser {
+    Long id;
+    String username;
+    String email;
+    String password;
+    UserRole role;
+    boolean active;
+    long version;
+
+    public static CachedUser from(User user) {
+        return new CachedUser(user.getId(), user.getUsername(), user.getEmail(),
+                user.getPassword(), user.getRole(), user.isActive(), user.getVersion());
+    }
+}
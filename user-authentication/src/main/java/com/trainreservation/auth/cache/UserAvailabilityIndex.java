@@ -0,0 +1,138 @@
+package com.trainreservation.auth.cache;
+
+import com.trainreservation.auth.repository.UserLogin;
+import com.trainreservation.auth.repository.UserRepository;
+import com.trainreservation.auth.util.CountingBloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.stream.Stream;
+
+/**
+ * Counting Bloom filters over normalized usernames and emails.
+ *
+ * A positive answer lets registration confirm a likely duplicate with an indexed query before it
+ * spends a hash on it. A negative answer only covers writes this instance has seen, so it is never
+ * taken as proof that a name is free: registration leaves those to the unique keys, and
+ * availability probes and profile changes always ask the database. Built from a streaming scan
+ * once the application is ready and kept current on register, import, profile changes and
+ * delete. Until the scan finishes every probe reports "maybe taken", and removals
+ * are ignored so that a concurrent delete cannot clear counters the scan has not added yet.
+ *
+ * Filters are sized for twice the row count at startup; past that the false-positive rate, and
+ * with it the number of confirming queries, grows gradually until the next restart.
+ */
+@Slf4j
+@Component
+public class UserAvailabilityIndex {
+
+    private static final long MIN_CAPACITY = 10_000;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+
+    private volatile CountingBloomFilter usernames;
+    private volatile CountingBloomFilter emails;
+    private volatile boolean ready;
+
+    public UserAvailabilityIndex(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${auth.availability.bloom.enabled:true}") boolean enabled,
+            @Value("${auth.availability.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        // Small filters that only absorb writes until build() swaps in sized ones
+        this.usernames = new CountingBloomFilter(MIN_CAPACITY, falsePositiveRate);
+        this.emails = new CountingBloomFilter(MIN_CAPACITY, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        long capacity = Math.max(MIN_CAPACITY, userRepository.count() * 2);
+        CountingBloomFilter scannedUsernames = new CountingBloomFilter(capacity, falsePositiveRate);
+        CountingBloomFilter scannedEmails = new CountingBloomFilter(capacity, falsePositiveRate);
+        // Swap before scanning: a writer that still adds to the old filter committed before
+        // the scan started, so the scan picks that row up anyway
+        usernames = scannedUsernames;
+        emails = scannedEmails;
+
+        Long rows = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<UserLogin> logins = userRepository.streamAllLogins()) {
+                for (UserLogin login : (Iterable<UserLogin>) logins::iterator) {
+                    scannedUsernames.add(UserCache.normalize(login.getUsername()));
+                    scannedEmails.add(UserCache.normalize(login.getEmail()));
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        ready = true;
+        log.info("Built availability Bloom filters over {} users in {} ms ({} KiB each, {} hashes)",
+                rows, (System.nanoTime() - startedAt) / 1_000_000, scannedUsernames.sizeInBytes() / 1024,
+                scannedUsernames.getHashCount());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** False only when the username is certainly not taken. */
+    public boolean mightContainUsername(String username) {
+        return !enabled || !ready || usernames.mightContain(UserCache.normalize(username));
+    }
+
+    /** False only when the email is certainly not taken. */
+    public boolean mightContainEmail(String email) {
+        return !enabled || !ready || emails.mightContain(UserCache.normalize(email));
+    }
+
+    public void addUsername(String username) {
+        if (enabled) {
+            usernames.add(UserCache.normalize(username));
+        }
+    }
+
+    public void addEmail(String email) {
+        if (enabled) {
+            emails.add(UserCache.normalize(email));
+        }
+    }
+
+    public void add(String username, String email) {
+        addUsername(username);
+        addEmail(email);
+    }
+
+    public void removeUsername(String username) {
+        if (enabled && ready) {
+            usernames.remove(UserCache.normalize(username));
+        }
+    }
+
+    public void removeEmail(String email) {
+        if (enabled && ready) {
+            emails.remove(UserCache.normalize(email));
+        }
+    }
+
+    public void remove(String username, String email) {
+        removeUsername(username);
+        removeEmail(email);
+    }
+}
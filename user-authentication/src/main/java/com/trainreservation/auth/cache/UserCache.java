@@ -0,0 +1,175 @@
+package com.trainreservation.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.trainreservation.auth.dto.CacheMetricsDTO;
+import com.trainreservation.auth.entity.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process cache of user rows, keyed by id with a secondary index from
+ * normalized username/email to id.
+ *
+ * UserServiceImpl reads through it and refreshes or evicts entries on every mutation.
+ * The TTL bounds staleness for changes made by other instances of the service.
+ *
+ * A row read from the database can be overtaken by a change that commits and evicts before
+ * the row is cached. Readers therefore take a stamp() before the read and cache the row with
+ * put(User, stamp), which is dropped if anything was evicted since. Every put also refuses to
+ * replace an entry with a newer version.
+ * Both caches publish the standard cache.* meters plus a cache.hit.ratio gauge.
+ */
+@Component
+public class UserCache {
+
+    private final boolean enabled;
+    private final Cache<Long, CachedUser> usersById;
+    private final Cache<String, Long> idsByLogin;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserCache(
+            MeterRegistry meterRegistry,
+            @Value("${auth.cache.users.enabled:true}") boolean enabled,
+            @Value("${auth.cache.users.maximum-size:10000}") long maximumSize,
+            @Value("${auth.cache.users.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Two login keys (username and email) per cached user
+        this.idsByLogin = Caffeine.newBuilder()
+                .maximumSize(maximumSize * 2)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        monitor(meterRegistry, usersById, "users.by-id");
+        monitor(meterRegistry, idsByLogin, "users.by-login");
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of lookups served from the cache since startup")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public CachedUser getById(Long id) {
+        return enabled ? usersById.getIfPresent(id) : null;
+    }
+
+    public CachedUser getByUsernameOrEmail(String usernameOrEmail) {
+        if (!enabled) {
+            return null;
+        }
+        String key = normalize(usernameOrEmail);
+        Long id = idsByLogin.getIfPresent(key);
+        CachedUser user = id != null ? usersById.getIfPresent(id) : null;
+        if (user == null) {
+            return null;
+        }
+        // Guard against an index entry left behind by a rename on another code path
+        if (!key.equals(normalize(user.getUsername())) && !key.equals(normalize(user.getEmail()))) {
+            idsByLogin.invalidate(key);
+            return null;
+        }
+        return user;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // One counter for all ids: an eviction anywhere only costs in-flight readers a later miss
+    public long stamp() {
+        return evictions.get();
+    }
+
+    // For state that is already committed, e.g. in an afterCommit callback
+    public CachedUser put(User user) {
+        return store(CachedUser.from(user), -1);
+    }
+
+    // For a row read after stamp() was taken
+    public CachedUser put(User user, long stamp) {
+        return store(CachedUser.from(user), stamp);
+    }
+
+    private CachedUser store(CachedUser cached, long stamp) {
+        if (!enabled) {
+            return cached;
+        }
+        CachedUser[] previous = new CachedUser[1];
+        boolean[] stored = new boolean[1];
+        // evict() counts before it removes, and both lock the same entry, so an eviction either
+        // fails this check or removes what was stored here
+        usersById.asMap().compute(cached.getId(), (id, current) -> {
+            if ((stamp >= 0 && evictions.get() != stamp)
+                    || (current != null && current.getVersion() > cached.getVersion())) {
+                return current;
+            }
+            previous[0] = current;
+            stored[0] = true;
+            return cached;
+        });
+        if (stored[0]) {
+            if (previous[0] != null) {
+                unindex(previous[0], cached);
+            }
+            idsByLogin.put(normalize(cached.getUsername()), cached.getId());
+            idsByLogin.put(normalize(cached.getEmail()), cached.getId());
+        }
+        return cached;
+    }
+
+    public void evict(Long id) {
+        if (!enabled) {
+            return;
+        }
+        evictions.incrementAndGet();
+        CachedUser previous = usersById.asMap().remove(id);
+        if (previous != null) {
+            unindex(previous, null);
+        }
+    }
+
+    private void unindex(CachedUser previous, CachedUser current) {
+        String oldUsername = normalize(previous.getUsername());
+        String oldEmail = normalize(previous.getEmail());
+        if (current == null || !oldUsername.equals(normalize(current.getUsername()))) {
+            idsByLogin.invalidate(oldUsername);
+        }
+        if (current == null || !oldEmail.equals(normalize(current.getEmail()))) {
+            idsByLogin.invalidate(oldEmail);
+        }
+    }
+
+    public CacheMetricsDTO getMetrics() {
+        CacheStats stats = usersById.stats();
+        CacheStats loginStats = idsByLogin.stats();
+        CacheMetricsDTO metrics = new CacheMetricsDTO();
+        metrics.setEnabled(enabled);
+        metrics.setSize(usersById.estimatedSize());
+        metrics.setHitCount(stats.hitCount());
+        metrics.setMissCount(stats.missCount());
+        metrics.setHitRate(stats.hitRate());
+        metrics.setEvictionCount(stats.evictionCount());
+        metrics.setLoginHitCount(loginStats.hitCount());
+        metrics.setLoginMissCount(loginStats.missCount());
+        return metrics;
+    }
+
+    public static String normalize(String usernameOrEmail) {
+        return usernameOrEmail.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,102 @@
+package com.trainreservation.auth.cache;
+
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.repository.UserRepository;
+import com.trainreservation.auth.util.TrigramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Fragment search over normalized usernames and emails for staff tooling (see TrigramIndex).
+ *
+ * Built from a streaming scan once the application is ready and kept current on register,
+ * import, profile changes and delete. Like the availability filters it only sees this
+ * instance's writes between restarts; callers re-check the rows they load, so an entry left
+ * stale costs a filtered row, never a wrong result.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private volatile TrigramIndex index = new TrigramIndex();
+
+    public UserSearchIndex(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${auth.search.enabled:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        Gauge.builder("auth.search.index.users", this, search -> search.index.size())
+                .description("Users in the search index")
+                .register(meterRegistry);
+        Gauge.builder("auth.search.index.bytes", this, search -> search.index.estimatedBytes())
+                .description("Estimated heap held by the search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        TrigramIndex scanned = new TrigramIndex();
+        // Swap before scanning, as for the availability filters: writes made meanwhile land in
+        // the new index, and a row the scan then reads again is deduplicated by id at query time
+        index = scanned;
+
+        Long rows = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<UserDTO> users = userRepository.streamAllUserDTOsOrderById()) {
+                for (UserDTO user : (Iterable<UserDTO>) users::iterator) {
+                    scanned.add(user.getId(), UserCache.normalize(user.getUsername()), UserCache.normalize(user.getEmail()));
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        log.info("Built user search index over {} users in {} ms (~{} MiB)",
+                rows, (System.nanoTime() - startedAt) / 1_000_000, scanned.estimatedBytes() / (1024 * 1024));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ids of matching users, exact matches first, then prefix, then substring matches.
+     */
+    public List<Long> search(String query, int offset, int limit) {
+        return index.search(UserCache.normalize(query), offset, limit);
+    }
+
+    public void add(Long id, String username, String email) {
+        if (enabled) {
+            index.add(id, UserCache.normalize(username), UserCache.normalize(email));
+        }
+    }
+
+    public void remove(Long id, String username) {
+        if (enabled) {
+            index.remove(id, UserCache.normalize(username));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.trainreservation.auth.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainreservation.auth.dto.UserExportFormat;
+import com.trainreservation.auth.dto.UserImportResultDTO;
+import com.trainreservation.auth.service.UserImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * One-shot bulk import from the command line:
+ *
+ *   java -jar user-authentication.jar --import-users=partners.csv [--import-format=NDJSON]
+ *
+ * UserAuthenticationApplication starts without a web server in this mode, prints the
+ * import report as JSON and exits with 1 when any row was rejected.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String FILE_OPTION = "import-users";
+    public static final String FORMAT_OPTION = "import-format";
+
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    private int exitCode;
+
+    public static boolean isImportRun(String[] args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + FILE_OPTION + "="));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(FILE_OPTION)) {
+            return;
+        }
+        Path file = Path.of(args.getOptionValues(FILE_OPTION).get(0));
+        UserExportFormat format = args.containsOption(FORMAT_OPTION)
+                ? UserExportFormat.valueOf(args.getOptionValues(FORMAT_OPTION).get(0).toUpperCase(Locale.ROOT))
+                : file.toString().toLowerCase(Locale.ROOT).endsWith(".ndjson") ? UserExportFormat.NDJSON : UserExportFormat.CSV;
+
+        UserImportResultDTO result;
+        try (InputStream in = Files.newInputStream(file)) {
+            result = userImportService.importUsers(format, in);
+        }
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+        exitCode = result.getFailed() > 0 ? 1 : 0;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -1,20 +1,79 @@
 package com.trainreservation.auth.config;
 
+import com.trainreservation.auth.dto.ErrorDTO;
+import com.trainreservation.auth.exception.AuthException;
+import com.trainreservation.auth.exception.ErrorCode;
+import com.trainreservation.auth.exception.HashingCapacityExceededException;
+import com.trainreservation.auth.exception.TooManyAttemptsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(AuthException.class)
+    public ResponseEntity<ErrorDTO> handleAuthException(AuthException ex) {
+        return error(ex.getCode());
+    }
+
+    // Two unconditional writers raced on the same row and the version check stopped the second
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDTO> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return error(ErrorCode.CONCURRENT_UPDATE);
+    }
+
+    // A unique key that was free when checked and taken by a concurrent write before the insert or
+    // update landed; a retry gets USERNAME_TAKEN or EMAIL_TAKEN from the service's own checks
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorDTO> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return error(ErrorCode.CONCURRENT_UPDATE);
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ErrorDTO> handleHashingCapacityExceeded(HashingCapacityExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorDTO("SERVICE_BUSY", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<ErrorDTO> handleTooManyAttempts(TooManyAttemptsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorDTO("TOO_MANY_ATTEMPTS", ex.getMessage()));
+    }
+
+    // A body or parameter Spring could not bind, e.g. malformed JSON or an unknown enum value
+    @ExceptionHandler({HttpMessageNotReadableException.class, TypeMismatchException.class})
+    public ResponseEntity<ErrorDTO> handleUnreadableRequest(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorDTO("BAD_REQUEST", "Malformed request"));
+    }
+
+    // Expected failures all have an ErrorCode, so anything else is a fault on this side; the
+    // message may name internals and goes to the log only
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    public ResponseEntity<ErrorDTO> handleRuntimeException(RuntimeException ex) {
+        // Spring's own exceptions, e.g. an async request timeout, already stand for a status
+        if (ex instanceof ErrorResponse errorResponse) {
+            return ResponseEntity.status(errorResponse.getStatusCode()).build();
+        }
+        log.error("Unhandled exception", ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorDTO("INTERNAL_ERROR", "Internal server error"));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -28,4 +87,8 @@ public class GlobalExceptionHandler {
         });
         return ResponseEntity.badRequest().body(errors);
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<ErrorDTO> error(ErrorCode code) {
+        return ResponseEntity.status(code.getStatus()).body(new ErrorDTO(code.getCode(), code.getMessage()));
+    }
+}
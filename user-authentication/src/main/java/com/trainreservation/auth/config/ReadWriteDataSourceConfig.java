@@ -0,0 +1,79 @@
+package com.trainreservation.auth.config;
+
+import com.trainreservation.auth.datasource.ReadWriteRoutingDataSource;
+import com.trainreservation.auth.datasource.ReplicaMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary + read replica pools behind one routing DataSource, enabled with
+ * auth.datasource.replica.enabled=true. Otherwise Spring Boot's single pool is used as before.
+ *
+ * The primary pool is configured exactly like the default one (spring.datasource.*); the
+ * replica takes auth.datasource.replica.url plus auth.datasource.replica.hikari.* and reuses
+ * the primary's credentials unless its own are set.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "auth.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("auth.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${auth.datasource.replica.url}") String url,
+            @Value("${auth.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${auth.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaMonitor replicaMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${auth.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${auth.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${auth.datasource.replica.check-interval:5s}") Duration checkInterval) {
+        return new ReplicaMonitor(replicaDataSource, lagQuery, maxLag, checkInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaMonitor replicaMonitor,
+            @Value("${auth.datasource.replica.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicaMonitor, readYourWritesWindow));
+    }
+}
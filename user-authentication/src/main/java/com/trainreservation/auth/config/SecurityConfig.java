@@ -1,24 +1,42 @@
 package com.trainreservation.auth.config;
 
+import com.trainreservation.auth.security.AuthTokenService;
+import com.trainreservation.auth.security.TokenAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.http.HttpStatus;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final AuthTokenService authTokenService;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        if (authTokenService.isEnabled()) {
+            // Stateless mode: every request carries a signed token, no HttpSession is created
+            http
+                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .addFilterBefore(new TokenAuthenticationFilter(authTokenService), UsernamePasswordAuthenticationFilter.class);
+        }
+
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authz -> authz
+                        // Async dispatches (SSE streams, streamed exports) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Public endpoints - HTML pages and static resources
                         .requestMatchers(
                                 "/",
@@ -30,11 +48,17 @@ public class SecurityConfig {
                                 "/*.js",
                                 "/api/auth/register",
                                 "/api/auth/login",
-                                "/api/auth/reset-password"
+                                "/api/auth/availability",
+                                "/api/auth/reset-password",
+                                "/actuator/health",
+                                "/actuator/health/**"
                         ).permitAll()
                         // Admin-only endpoints
-                        .requestMatchers("/api/auth/admin/**", "/admin-dashboard.html", "/user-management.html")
+                        .requestMatchers("/api/auth/admin/**", "/actuator/**", "/admin-dashboard.html", "/user-management.html")
                         .hasAuthority("ADMIN")
+                        // Staff support tooling
+                        .requestMatchers("/api/auth/staff/**")
+                        .hasAnyAuthority("STAFF", "ADMIN")
                         // Authenticated user endpoints
                         .requestMatchers(
                                 "/api/auth/users/**",
@@ -56,7 +80,7 @@ public class SecurityConfig {
                             response.setStatus(HttpStatus.OK.value());
                         })
                         .invalidateHttpSession(true)
-                        .deleteCookies("JSESSIONID")
+                        .deleteCookies("JSESSIONID", AuthTokenService.COOKIE_NAME)
                 );
 
         return http.build();
@@ -1,22 +1,37 @@
 package com.trainreservation.auth.controller;
 
+import com.trainreservation.auth.audit.AuditLog;
+import com.trainreservation.auth.cache.UserCache;
 import com.trainreservation.auth.dto.*;
-import com.trainreservation.auth.entity.User;
 import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.feed.UserChangeFeed;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import com.trainreservation.auth.security.LoginThrottle;
+import com.trainreservation.auth.service.PasswordHashingService;
+import com.trainreservation.auth.service.UserImportService;
 import com.trainreservation.auth.service.UserService;
+import com.trainreservation.auth.util.DTOMapperFactory;
+import com.trainreservation.auth.util.UserETags;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.web.bind.annotation.*;
-import java.util.Collections;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -25,6 +40,13 @@ import java.util.List;
 @CrossOrigin(originPatterns = "*", allowCredentials = "true")
 public class UserController {
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final PasswordHashingService passwordHashingService;
+    private final UserCache userCache;
+    private final AuthTokenService authTokenService;
+    private final LoginThrottle loginThrottle;
+    private final AuditLog auditLog;
+    private final UserChangeFeed userChangeFeed;
 
     // PUBLIC ENDPOINTS
     @PostMapping("/register")
@@ -35,15 +57,21 @@ public class UserController {
 
     @PostMapping("/login")
     public ResponseEntity<UserDTO> loginUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        loginThrottle.check(request.getRemoteAddr(), loginRequest.getUsernameOrEmail());
         UserDTO user = userService.loginUser(loginRequest);
+
+        if (authTokenService.isEnabled()) {
+            // Stateless mode: hand out a signed token instead of creating a session
+            String token = authTokenService.issue(user);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, authTokenService.createCookie(token).toString())
+                    .header(AuthTokenService.TOKEN_HEADER, token)
+                    .body(user);
+        }
         
         // Create authentication and store in session
-        org.springframework.security.authentication.UsernamePasswordAuthenticationToken authentication =
-                new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
-                        user.getId().toString(),
-                        null,
-                        Collections.singletonList(new SimpleGrantedAuthority(user.getRole().toString()))
-                );
+        Authentication authentication = AuthTokenService.toAuthentication(
+                new AuthPrincipal(user.getId(), user.getUsername(), user.getRole()));
         
         SecurityContext securityContext = SecurityContextHolder.getContext();
         securityContext.setAuthentication(authentication);
@@ -56,6 +84,17 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    // Answers whether an account exists, so it is rate limited per client IP. That slows one
+    // address down but not a botnet, and registering also reveals a taken username or email
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityDTO> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email,
+            HttpServletRequest request) {
+        loginThrottle.checkAvailability(request.getRemoteAddr());
+        return ResponseEntity.ok(userService.checkAvailability(username, email));
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<String> logout(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
@@ -67,62 +106,73 @@ public class UserController {
     }
 
     @GetMapping("/current-user")
-    public ResponseEntity<UserDTO> getCurrentUser(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session == null || session.getAttribute("USER_ID") == null) {
+    public ResponseEntity<UserDTO> getCurrentUser(
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @RequestParam(defaultValue = "false") boolean claims) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        
-        Long userId = (Long) session.getAttribute("USER_ID");
-        UserDTO user = userService.getUserById(userId);
-        return ResponseEntity.ok(user);
+
+        // Answer id, username and role straight from the authenticated principal, without a lookup
+        if (claims) {
+            return ResponseEntity.ok(DTOMapperFactory.createUserDTO(principal));
+        }
+
+        // Usually a cache hit, so If-None-Match is answered with a 304 without touching the database
+        UserDTO user = userService.getUserById(principal.getId());
+        return tagged(UserETags.of(user), user);
     }
 
     @PutMapping("/reset-password")
-    public ResponseEntity<String> resetPassword(@Valid @RequestBody PasswordResetRequest request) {
+    public ResponseEntity<String> resetPassword(@Valid @RequestBody PasswordResetRequest request,
+                                                HttpServletRequest httpRequest) {
+        loginThrottle.check(httpRequest.getRemoteAddr(), request.getEmail());
         boolean success = userService.resetPassword(request);
         return success ?
                 ResponseEntity.ok("Password reset successfully") :
                 ResponseEntity.badRequest().body("Password reset failed");
     }
 
+    // STAFF TOOLING - ranked fragment search over usernames and emails, for STAFF and ADMIN
+    @GetMapping("/staff/users/search")
+    public ResponseEntity<UserSearchPageDTO> searchUsers(@Valid UserSearchRequest searchRequest) {
+        return ResponseEntity.ok(userService.searchUsers(searchRequest));
+    }
+
     // USER PROFILE MANAGEMENT - Users can only edit their own profile
     @PutMapping("/users/{userId}/profile")
     public ResponseEntity<UserDTO> updateProfile(
             @PathVariable Long userId,
             @Valid @RequestBody UserUpdateDTO userUpdateDTO,
-            HttpServletRequest request) {
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal AuthPrincipal principal) {
         
         // Verify user is updating their own profile
-        HttpSession session = request.getSession(false);
-        if (session == null || session.getAttribute("USER_ID") == null) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        Long currentUserId = (Long) session.getAttribute("USER_ID");
-        if (!currentUserId.equals(userId)) {
+        if (!principal.getId().equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .build();
         }
         
-        UserDTO updatedUser = userService.updateProfile(userId, userUpdateDTO);
-        return ResponseEntity.ok(updatedUser);
+        UserDTO updatedUser = userService.updateProfile(userId, userUpdateDTO, UserETags.expectedVersion(userId, ifMatch));
+        return tagged(UserETags.of(updatedUser), updatedUser);
     }
 
     @PutMapping("/users/{userId}/change-password")
     public ResponseEntity<String> changePassword(
             @PathVariable Long userId,
             @Valid @RequestBody PasswordChangeRequest request,
-            HttpServletRequest httpRequest) {
+            @AuthenticationPrincipal AuthPrincipal principal) {
         
         // Verify user is changing their own password
-        HttpSession session = httpRequest.getSession(false);
-        if (session == null || session.getAttribute("USER_ID") == null) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        Long currentUserId = (Long) session.getAttribute("USER_ID");
-        if (!currentUserId.equals(userId)) {
+        if (!principal.getId().equals(userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .build();
         }
@@ -134,62 +184,164 @@ public class UserController {
     }
 
     // ADMIN USER MANAGEMENT - Only accessible by ADMIN role (enforced by SecurityConfig)
+    // Single users and lists carry an ETag; PUT/DELETE on a user accept If-Match with it
     @GetMapping("/admin/users")
     public ResponseEntity<List<UserDTO>> getAllUsers() {
         List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+        return tagged(UserETags.of(users), users);
+    }
+
+    @GetMapping("/admin/users/page")
+    public ResponseEntity<UserPageDTO> getUsersPage(@Valid UserPageRequest pageRequest) {
+        UserPageDTO page = userService.getUsersPage(pageRequest);
+        return tagged(UserETags.of(page.getUsers(), page.getNextCursor(), page.isHasMore()), page);
+    }
+
+    // LIVE ADMIN VIEWS - committed user changes as Server-Sent Events, plus catch-up by version
+    @GetMapping(value = "/admin/users/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return userChangeFeed.subscribe(lastEventId);
+    }
+
+    @GetMapping("/admin/users/changes")
+    public ResponseEntity<UserChangesDTO> getUserChanges(@RequestParam long since) {
+        return ResponseEntity.ok(userChangeFeed.changesSince(since));
+    }
+
+    @GetMapping("/admin/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "NDJSON") UserExportFormat format) {
+        StreamingResponseBody body = outputStream -> userService.exportUsers(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    // Streams the request body; see UserImportService for the accepted columns
+    @PostMapping("/admin/users/import")
+    public ResponseEntity<UserImportResultDTO> importUsers(
+            @RequestParam(defaultValue = "CSV") UserExportFormat format,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(format, body));
+    }
+
+    @GetMapping("/admin/users/stats")
+    public ResponseEntity<UserStatsDTO> getUserStats() {
+        UserStatsDTO stats = userService.getUserStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/admin/metrics/password-hashing")
+    public ResponseEntity<PasswordHashingMetricsDTO> getPasswordHashingMetrics() {
+        return ResponseEntity.ok(passwordHashingService.getMetrics());
+    }
+
+    @GetMapping("/admin/metrics/user-cache")
+    public ResponseEntity<CacheMetricsDTO> getUserCacheMetrics() {
+        return ResponseEntity.ok(userCache.getMetrics());
+    }
+
+    // Newest first; written asynchronously, so the latest events may take a flush interval to appear
+    @GetMapping("/admin/audit")
+    public ResponseEntity<AuditPageDTO> getAuditEvents(@Valid AuditPageRequest pageRequest) {
+        return ResponseEntity.ok(auditLog.getPage(pageRequest));
     }
 
     @GetMapping("/admin/users/{id}")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
-        UserDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+        UserDTO user = userService.getUserDetails(id);
+        return tagged(UserETags.of(user), user);
     }
 
     @PutMapping("/admin/users/{userId}/role")
     public ResponseEntity<UserDTO> updateUserRole(
             @PathVariable Long userId,
-            @RequestParam UserRole newRole) {
-        UserDTO updatedUser = userService.updateUserRole(userId, newRole);
-        return ResponseEntity.ok(updatedUser);
+            @RequestParam UserRole newRole,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserDTO updatedUser = userService.updateUserRole(userId, newRole, UserETags.expectedVersion(userId, ifMatch));
+        return tagged(UserETags.of(updatedUser), updatedUser);
     }
 
     @PutMapping("/admin/users/{userId}/deactivate")
-    public ResponseEntity<String> deactivateUser(@PathVariable Long userId) {
-        boolean success = userService.deactivateUser(userId);
+    public ResponseEntity<String> deactivateUser(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean success = userService.deactivateUser(userId, UserETags.expectedVersion(userId, ifMatch));
         return success ?
                 ResponseEntity.ok("User deactivated successfully") :
                 ResponseEntity.badRequest().body("User deactivation failed");
     }
 
     @PutMapping("/admin/users/{userId}/activate")
-    public ResponseEntity<String> activateUser(@PathVariable Long userId) {
-        boolean success = userService.activateUser(userId);
+    public ResponseEntity<String> activateUser(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean success = userService.activateUser(userId, UserETags.expectedVersion(userId, ifMatch));
         return success ?
                 ResponseEntity.ok("User activated successfully") :
                 ResponseEntity.badRequest().body("User activation failed");
     }
 
     @DeleteMapping("/admin/users/{userId}")
-    public ResponseEntity<String> deleteUser(@PathVariable Long userId, HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        Long currentUserId = (Long) session.getAttribute("USER_ID");
-        
-        boolean success = userService.deleteUser(userId, currentUserId);
+    public ResponseEntity<String> deleteUser(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        boolean success = userService.deleteUser(userId, principal.getId(), UserETags.expectedVersion(userId, ifMatch));
         return success ?
                 ResponseEntity.ok("User deleted successfully") :
                 ResponseEntity.badRequest().body("Cannot delete user");
     }
 
+    // BULK ADMIN OPERATIONS - set-based statements in one transaction, per-id outcomes in the response
+    @PostMapping("/admin/users/bulk/activate")
+    public ResponseEntity<BulkUserResultDTO> bulkActivate(
+            @Valid @RequestBody BulkUserRequest request,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        return ResponseEntity.ok(userService.bulkUpdateActive(request, true, principal.getId()));
+    }
+
+    @PostMapping("/admin/users/bulk/deactivate")
+    public ResponseEntity<BulkUserResultDTO> bulkDeactivate(
+            @Valid @RequestBody BulkUserRequest request,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        return ResponseEntity.ok(userService.bulkUpdateActive(request, false, principal.getId()));
+    }
+
+    @PostMapping("/admin/users/bulk/role")
+    public ResponseEntity<BulkUserResultDTO> bulkUpdateRole(
+            @Valid @RequestBody BulkUserRequest request,
+            @RequestParam UserRole newRole,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        return ResponseEntity.ok(userService.bulkUpdateRole(request, newRole, principal.getId()));
+    }
+
+    @PostMapping("/admin/users/bulk/delete")
+    public ResponseEntity<BulkUserResultDTO> bulkDelete(
+            @Valid @RequestBody BulkUserRequest request,
+            @AuthenticationPrincipal AuthPrincipal principal) {
+        return ResponseEntity.ok(userService.bulkDelete(request, principal.getId()));
+    }
+
     @GetMapping("/admin/users/role/{role}")
     public ResponseEntity<List<UserDTO>> getUsersByRole(@PathVariable UserRole role) {
         List<UserDTO> users = userService.getUsersByRole(role);
-        return ResponseEntity.ok(users);
+        return tagged(UserETags.of(users), users);
     }
 
     @GetMapping("/admin/users/status/{active}")
     public ResponseEntity<List<UserDTO>> getUsersByStatus(@PathVariable boolean active) {
         List<UserDTO> users = userService.getActiveUsers(active);
-        return ResponseEntity.ok(users);
+        return tagged(UserETags.of(users), users);
+    }
+
+    // Spring answers a GET whose If-None-Match matches the tag with a 304 and never writes the body.
+    // no-cache lets clients keep the response but makes them revalidate it on every use.
+    private static <T> ResponseEntity<T> tagged(String eTag, T body) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.trainreservation.auth.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trainreservation.auth.security.AuthPrincipal;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to
+ * the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a
+ * connection before the read-only flag is bound, the proxy defers that until the first
+ * statement. Reads stay on the primary when:
+ * - the replica is down or lagging (ReplicaMonitor), or a replica connection just failed;
+ * - the authenticated user wrote within the read-your-writes window, so e.g. current-user
+ *   right after updateProfile cannot see the replica's older row;
+ * - the caller asked for it with onPrimary(), for lookups that must see the latest commit.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Integer> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaMonitor replicaMonitor;
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaMonitor replicaMonitor,
+                                      Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaMonitor = replicaMonitor;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Runs the action with every connection taken from the primary, whatever the transaction.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Integer depth = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(depth == null ? 1 : depth + 1);
+        try {
+            return action.get();
+        } finally {
+            if (depth == null) {
+                PRIMARY_ONLY.remove();
+            } else {
+                PRIMARY_ONLY.set(depth);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                replicaMonitor.markUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null) {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+            return false;
+        }
+        return PRIMARY_ONLY.get() == null
+                && replicaMonitor.isAvailable()
+                && (userId == null || recentWriters.getIfPresent(userId) == null);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthPrincipal principal
+                ? principal.getId() : null;
+    }
+}
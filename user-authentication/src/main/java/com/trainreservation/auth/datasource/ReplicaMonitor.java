@@ -0,0 +1,101 @@
+package com.trainreservation.auth.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically decides whether reads may go to the replica.
+ *
+ * The replica is usable when a connection validates and, if a lag query is configured,
+ * the lag it reports (seconds, first column of the first row) is within max-lag. A NULL
+ * lag means replication is not running. A failed replica connection in between checks
+ * takes the replica out immediately; the next successful check brings it back.
+ */
+@Slf4j
+public class ReplicaMonitor {
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean available;
+
+    public ReplicaMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval,
+                          MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("auth.datasource.replica.available", this, monitor -> monitor.isAvailable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        this.scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void markUnavailable(Exception cause) {
+        if (available) {
+            log.warn("Routing reads to the primary: replica connection failed ({})", cause.getMessage());
+        }
+        available = false;
+    }
+
+    public void check() {
+        boolean wasAvailable = available;
+        String problem = null;
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                if (!connection.isValid(1)) {
+                    problem = "connection is not valid";
+                }
+            } else {
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    if (!resultSet.next()) {
+                        problem = "lag query returned no rows";
+                    } else {
+                        long lag = resultSet.getLong(1);
+                        if (resultSet.wasNull()) {
+                            problem = "replication is not running";
+                        } else if (lag > maxLagSeconds) {
+                            problem = "lagging " + lag + "s behind the primary";
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            problem = e.getMessage();
+        }
+
+        available = problem == null;
+        if (wasAvailable && !available) {
+            log.warn("Routing reads to the primary: replica {}", problem);
+        } else if (!wasAvailable && available) {
+            log.info("Routing read-only transactions to the replica again");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
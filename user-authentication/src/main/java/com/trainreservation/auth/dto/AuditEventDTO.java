@@ -0,0 +1,27 @@
+package com.trainreservation.auth.dto;
+
+import com.trainreservation.auth.entity.AuditEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEventDTO {
+
+    private Long id;
+
+    private AuditEventType type;
+
+    private Long userId;
+
+    private Long actorId;
+
+    private String identifier;
+
+    private String detail;
+
+    private LocalDateTime occurredAt;
+}
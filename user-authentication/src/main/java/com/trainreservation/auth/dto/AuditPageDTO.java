@@ -0,0 +1,19 @@
+package com.trainreservation.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditPageDTO {
+
+    private List<AuditEventDTO> events;
+
+    // Pass as "before" to get the next (older) page
+    private Long nextBefore;
+
+    private boolean hasMore;
+}
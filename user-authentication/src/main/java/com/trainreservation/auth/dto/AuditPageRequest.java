@@ -0,0 +1,21 @@
+package com.trainreservation.auth.dto;
+
+import com.trainreservation.auth.entity.AuditEventType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class AuditPageRequest {
+
+    private AuditEventType type;
+
+    private Long userId;
+
+    // Only events with a smaller id, i.e. older ones; empty for the newest page
+    private Long before;
+
+    @Min(value = 1, message = "Page size must be at least 1")
+    @Max(value = 200, message = "Page size must be at most 200")
+    private int size = 50;
+}
@@ -0,0 +1,15 @@
+package com.trainreservation.auth.dto;
+
+import lombok.Data;
+
+@Data
+public class AvailabilityDTO {
+
+    private String username;
+
+    private Boolean usernameAvailable;
+
+    private String email;
+
+    private Boolean emailAvailable;
+}
@@ -0,0 +1,8 @@
+package com.trainreservation.auth.dto;
+
+public enum BulkUserOutcome {
+    APPLIED,
+    UNCHANGED,
+    NOT_FOUND,
+    SKIPPED_SELF
+}
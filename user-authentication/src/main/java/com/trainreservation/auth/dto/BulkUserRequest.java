@@ -0,0 +1,35 @@
+package com.trainreservation.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.trainreservation.auth.entity.UserRole;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * Targets of a bulk admin operation: either an explicit list of ids, or a role/active filter.
+ */
+@Data
+public class BulkUserRequest {
+
+    @Size(max = 10000, message = "At most 10000 user ids per request")
+    private List<@NotNull Long> userIds;
+
+    private UserRole role;
+
+    private Boolean active;
+
+    @JsonIgnore
+    public boolean hasUserIds() {
+        return userIds != null && !userIds.isEmpty();
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either userIds or a role/active filter, not both")
+    public boolean isTargetValid() {
+        boolean hasFilter = role != null || active != null;
+        return hasUserIds() != hasFilter;
+    }
+}
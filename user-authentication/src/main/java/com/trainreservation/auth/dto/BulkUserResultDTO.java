@@ -0,0 +1,16 @@
+package com.trainreservation.auth.dto;
+
+import lombok.Data;
+import java.util.Map;
+
+@Data
+public class BulkUserResultDTO {
+
+    private String action;
+
+    private int matched;
+
+    private int applied;
+
+    private Map<Long, BulkUserOutcome> outcomes;
+}
@@ -0,0 +1,23 @@
+package com.trainreservation.auth.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheMetricsDTO {
+
+    private boolean enabled;
+
+    private long size;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private double hitRate;
+
+    private long evictionCount;
+
+    private long loginHitCount;
+
+    private long loginMissCount;
+}
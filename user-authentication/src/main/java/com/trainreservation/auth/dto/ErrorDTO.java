@@ -0,0 +1,16 @@
+package com.trainreservation.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Error body: a stable code to branch on and a message to show
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorDTO {
+
+    private String code;
+
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.trainreservation.auth.dto;
+
+import lombok.Data;
+
+@Data
+public class PasswordHashingMetricsDTO {
+
+    private int poolSize;
+
+    private int activeThreads;
+
+    private int queueDepth;
+
+    private int queueCapacity;
+
+    private long completedTasks;
+
+    private long rejectedTasks;
+
+    private long timedOutTasks;
+
+    private double averageWaitMillis;
+
+    private double maxWaitMillis;
+
+    private double averageHashMillis;
+
+    private double maxHashMillis;
+}
@@ -0,0 +1,29 @@
+package com.trainreservation.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.trainreservation.auth.entity.UserChangeType;
+import com.trainreservation.auth.entity.UserRole;
+import lombok.Data;
+
+/**
+ * One change to a user, carrying the new values of the fields it touched (the rest are null and
+ * left out of the JSON). Values are absolute, so applying an event twice is harmless.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserChangeEventDTO {
+
+    private long version;
+
+    private UserChangeType type;
+
+    private Long userId;
+
+    private String username;
+
+    private String email;
+
+    private UserRole role;
+
+    private Boolean active;
+}
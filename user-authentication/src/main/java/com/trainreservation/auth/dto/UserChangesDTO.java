@@ -0,0 +1,19 @@
+package com.trainreservation.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangesDTO {
+
+    private List<UserChangeEventDTO> events;
+
+    private long latestVersion;
+
+    // The requested version is no longer retained (or from before a restart): reload the list
+    private boolean resetRequired;
+}
@@ -1,12 +1,16 @@
 package com.trainreservation.auth.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.trainreservation.auth.entity.UserRole;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class UserDTO {
 
     private Long id;
@@ -26,4 +30,29 @@ public class UserDTO {
     private UserRole role;
 
     private boolean active;
+
+    // Only filled in by the detailed/admin mappings
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime lastLoginAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long loginCount;
+
+    // Row version, also sent as the ETag; null where the source query does not select it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    // Used by JPQL constructor projections, so read-only queries never hydrate User entities
+    public UserDTO(Long id, String username, String email, UserRole role, boolean active) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+        this.active = active;
+    }
+
+    public UserDTO(Long id, String username, String email, UserRole role, boolean active, long version) {
+        this(id, username, email, role, active);
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.trainreservation.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportErrorDTO {
+
+    private long line;
+
+    private String username;
+
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.trainreservation.auth.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class UserImportResultDTO {
+
+    private long totalRows;
+
+    private long imported;
+
+    private long failed;
+
+    private long elapsedMillis;
+
+    private double usersPerSecond;
+
+    private List<UserImportErrorDTO> errors = new ArrayList<>();
+}
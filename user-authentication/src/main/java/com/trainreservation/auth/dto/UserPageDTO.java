@@ -0,0 +1,18 @@
+package com.trainreservation.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDTO {
+
+    private List<UserDTO> users;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+}
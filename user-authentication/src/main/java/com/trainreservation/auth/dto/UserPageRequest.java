@@ -0,0 +1,33 @@
+package com.trainreservation.auth.dto;
+
+import com.trainreservation.auth.entity.UserRole;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDateTime;
+
+@Data
+public class UserPageRequest {
+
+    private UserRole role;
+
+    private Boolean active;
+
+    // Dormant accounts: never logged in, or last login before this time (ISO-8601)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime lastLoginBefore;
+
+    @Pattern(regexp = "id|createdAt|username|email", message = "Sort must be one of id, createdAt, username, email")
+    private String sort = "id";
+
+    @Pattern(regexp = "(?i)asc|desc", message = "Direction must be asc or desc")
+    private String direction = "asc";
+
+    @Min(value = 1, message = "Page size must be at least 1")
+    @Max(value = 200, message = "Page size must be at most 200")
+    private int size = 50;
+
+    private String cursor;
+}
@@ -0,0 +1,30 @@
+package com.trainreservation.auth.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class UserSearchRequest {
+
+    // Substring matches need 3 characters; with 2 only exact and prefix matches are found
+    @NotBlank(message = "Query is required")
+    @Size(min = 2, max = 100, message = "Query must be between 2 and 100 characters")
+    private String q;
+
+    @Min(value = 0, message = "Page must not be negative")
+    private int page = 0;
+
+    @Min(value = 1, message = "Page size must be at least 1")
+    @Max(value = 100, message = "Page size must be at most 100")
+    private int size = 20;
+
+    // Ranked results are cut off at the first 1000 matches; refine the query past that
+    @AssertTrue(message = "Only the first 1000 matches can be paged through")
+    public boolean isWithinResultWindow() {
+        return (long) (page + 1) * size <= 1000;
+    }
+}
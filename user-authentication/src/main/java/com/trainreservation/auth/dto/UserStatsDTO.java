@@ -0,0 +1,19 @@
+package com.trainreservation.auth.dto;
+
+import lombok.Data;
+
+@Data
+public class UserStatsDTO {
+
+    private long totalUsers;
+
+    private long activeUsers;
+
+    private long inactiveUsers;
+
+    private long adminCount;
+
+    private long staffCount;
+
+    private long passengerCount;
+}
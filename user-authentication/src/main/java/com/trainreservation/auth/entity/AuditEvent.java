@@ -0,0 +1,46 @@
+package com.trainreservation.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only audit record. Rows are inserted in batches by AuditLog's writer thread with
+ * plain JDBC; the entity is only used to create the table and to read it back.
+ */
+@Entity
+@Table(name = "audit_events", indexes = {
+        @Index(name = "idx_audit_events_user", columnList = "user_id, id"),
+        @Index(name = "idx_audit_events_type", columnList = "type, id")
+})
+@Data
+@NoArgsConstructor
+public class AuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AuditEventType type;
+
+    // Account the event is about; null when it could not be resolved (e.g. login with an unknown name)
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Signed-in user who caused the event; null for anonymous requests such as login
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    // Username or email as submitted, for events that start from one
+    @Column(length = 255)
+    private String identifier;
+
+    @Column(length = 255)
+    private String detail;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,12 @@
+package com.trainreservation.auth.entity;
+
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    PASSWORD_CHANGE,
+    PASSWORD_RESET,
+    ROLE_CHANGE,
+    ACTIVATION,
+    DEACTIVATION,
+    DELETION
+}
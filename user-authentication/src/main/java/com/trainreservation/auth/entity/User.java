@@ -7,17 +7,29 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
+// Dynamic updates write only the changed columns, so a profile edit never puts back the
+// login_count/last_login_at it loaded over a concurrent LoginActivityTracker flush
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role", columnList = "role"),
+        @Index(name = "idx_users_active", columnList = "active"),
+        @Index(name = "idx_users_role_active", columnList = "role, active")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    // Pooled ids (a sequence, or the users_seq table on MySQL) so Hibernate can batch inserts;
+    // IDENTITY forces an immediate INSERT per entity to learn the generated key
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Username is required")
@@ -40,10 +52,27 @@ public class User {
 
     private boolean active = true;
 
+    // Never null: the admin listing pages through it with a keyset predicate
+    @Column(nullable = false)
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
 
+    // Written behind by LoginActivityTracker in periodic batches, not on every login;
+    // neither touches updatedAt, which tracks changes to the account itself
+    private LocalDateTime lastLoginAt;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long loginCount;
+
+    // Optimistic lock and ETag source. Bumped by every change to username, email, role or
+    // active (JPQL updates do it explicitly); password and login activity updates leave it alone
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
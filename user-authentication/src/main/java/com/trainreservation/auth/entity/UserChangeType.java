@@ -0,0 +1,10 @@
+package com.trainreservation.auth.entity;
+
+public enum UserChangeType {
+    CREATED,
+    UPDATED,
+    ROLE_CHANGED,
+    ACTIVATED,
+    DEACTIVATED,
+    DELETED
+}
@@ -0,0 +1,20 @@
+package com.trainreservation.auth.exception;
+
+import lombok.Getter;
+
+/**
+ * An expected failure, identified by its ErrorCode. Obtained from ErrorCode.exception(), never
+ * constructed per failure: these are control flow, so no stack trace is captured, suppression is
+ * off and the cause is fixed, which makes the shared instance safe to throw from any thread.
+ * GlobalExceptionHandler maps it to the code's status and an ErrorDTO body.
+ */
+@Getter
+public final class AuthException extends RuntimeException {
+
+    private final ErrorCode code;
+
+    AuthException(ErrorCode code) {
+        super(code.getMessage(), null, false, false);
+        this.code = code;
+    }
+}
@@ -0,0 +1,18 @@
+package com.trainreservation.auth.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the password hashing executor cannot accept or finish a task in time.
+ * Mapped to 503 with a Retry-After header by GlobalExceptionHandler.
+ */
+@Getter
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        super("Server is busy, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.trainreservation.auth.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown by LoginThrottle when an identifier or client IP has used up its attempts.
+ * Mapped to 429 with a Retry-After header by GlobalExceptionHandler.
+ */
+@Getter
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(long retryAfterSeconds) {
+        super("Too many attempts, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
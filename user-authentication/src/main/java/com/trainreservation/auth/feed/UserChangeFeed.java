@@ -0,0 +1,202 @@
+package com.trainreservation.auth.feed;
+
+import com.trainreservation.auth.dto.UserChangeEventDTO;
+import com.trainreservation.auth.dto.UserChangesDTO;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.UserChangeType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory broadcast of committed user changes for live admin views.
+ *
+ * Each change gets the next version number and goes into a bounded history; a single
+ * dispatcher thread forwards it to the SSE subscribers, so a slow client never holds up the
+ * request that made the change. Subscribers that reconnect with Last-Event-ID, and clients of
+ * the catch-up endpoint, get the retained events after their version, or resetRequired once
+ * that version has fallen out of the history or belongs to an earlier process.
+ *
+ * Versions are per instance and start over on restart; changes made through other instances
+ * are not seen, as for the user cache.
+ */
+@Slf4j
+@Component
+public class UserChangeFeed {
+
+    public static final String EVENT_NAME = "user-change";
+    public static final String READY_EVENT_NAME = "ready";
+    public static final String RESET_EVENT_NAME = "reset";
+
+    private final int historySize;
+    private final long emitterTimeoutMillis;
+    private final ArrayDeque<UserChangeEventDTO> history = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService dispatcher;
+
+    // Guarded by history
+    private long version;
+
+    public UserChangeFeed(
+            MeterRegistry meterRegistry,
+            @Value("${auth.feed.history-size:10000}") int historySize,
+            @Value("${auth.feed.emitter-timeout:30m}") Duration emitterTimeout,
+            @Value("${auth.feed.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.historySize = historySize;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Comments keep proxies from closing idle streams and flush out dead connections
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        dispatcher.scheduleAtFixedRate(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        Gauge.builder("auth.feed.subscribers", subscribers, List::size)
+                .description("Open user change streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes a change. Call once the change is committed; user may be null for DELETED and
+     * the activation events, and only the fields that belong to the change type are copied.
+     */
+    public void publish(UserChangeType type, Long userId, UserDTO user) {
+        UserChangeEventDTO event = new UserChangeEventDTO();
+        event.setType(type);
+        event.setUserId(userId);
+        switch (type) {
+            case CREATED, UPDATED -> {
+                event.setUsername(user.getUsername());
+                event.setEmail(user.getEmail());
+                event.setRole(user.getRole());
+                event.setActive(user.isActive());
+            }
+            case ROLE_CHANGED -> event.setRole(user.getRole());
+            case ACTIVATED -> event.setActive(true);
+            case DEACTIVATED -> event.setActive(false);
+            case DELETED -> {
+            }
+        }
+        synchronized (history) {
+            event.setVersion(++version);
+            history.addLast(event);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            // Submitted under the lock so the dispatcher sends events in version order
+            if (!subscribers.isEmpty() && !dispatcher.isShutdown()) {
+                dispatcher.execute(() -> subscribers.forEach(subscriber -> subscriber.send(event)));
+            }
+        }
+    }
+
+    public UserChangesDTO changesSince(long since) {
+        synchronized (history) {
+            long oldest = history.isEmpty() ? version + 1 : history.getFirst().getVersion();
+            if (since > version || since < oldest - 1) {
+                return new UserChangesDTO(List.of(), version, true);
+            }
+            List<UserChangeEventDTO> events = history.stream()
+                    .filter(event -> event.getVersion() > since)
+                    .toList();
+            return new UserChangesDTO(events, version, false);
+        }
+    }
+
+    /**
+     * Opens a stream. A new stream starts with a ready event carrying the current version; load
+     * the list after it and apply the events that follow. With lastEventId the events after it
+     * are replayed instead (or a reset event is sent). Either way each event arrives once.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        // Runs on the dispatcher, so no live event can be sent between the replay and the add
+        dispatcher.execute(() -> {
+            if (lastEventId == null) {
+                subscriber.lastSent = latestVersion();
+                subscriber.sendMarker(READY_EVENT_NAME, subscriber.lastSent);
+            } else {
+                UserChangesDTO catchUp = changesSince(lastEventId);
+                if (catchUp.isResetRequired()) {
+                    subscriber.lastSent = catchUp.getLatestVersion();
+                    subscriber.sendMarker(RESET_EVENT_NAME, subscriber.lastSent);
+                } else {
+                    subscriber.lastSent = lastEventId;
+                    catchUp.getEvents().forEach(subscriber::send);
+                }
+            }
+            subscribers.add(subscriber);
+        });
+        return emitter;
+    }
+
+    private long latestVersion() {
+        synchronized (history) {
+            return version;
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // Only touched on the dispatcher thread
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private long lastSent;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void send(UserChangeEventDTO event) {
+            // Events published while a subscribe is queued are in both the replay and the live path
+            if (event.getVersion() <= lastSent) {
+                return;
+            }
+            lastSent = event.getVersion();
+            deliver(SseEmitter.event().id(Long.toString(event.getVersion())).name(EVENT_NAME).data(event));
+        }
+
+        void sendMarker(String name, long latestVersion) {
+            deliver(SseEmitter.event().id(Long.toString(latestVersion)).name(name).data(latestVersion));
+        }
+
+        void heartbeat() {
+            deliver(SseEmitter.event().comment("keepalive"));
+        }
+
+        private void deliver(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                log.debug("Dropped user change subscriber: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.trainreservation.auth.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sees every statement Hibernate prepares: counts them for the current request and logs a
+ * random sample of them at DEBUG.
+ *
+ * Replaces spring.jpa.show-sql, which printed and pretty-printed every statement to stdout.
+ * With auth.sql.log-sample-rate at 0 the per-statement cost is one thread-local read.
+ */
+@Slf4j(topic = "com.trainreservation.auth.sql")
+@Component
+public class SqlStatementMetrics implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private final double logSampleRate;
+
+    public SqlStatementMetrics(@Value("${auth.sql.log-sample-rate:0}") double logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = REQUEST_STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate && log.isDebugEnabled()) {
+            log.debug("{}", sql);
+        }
+        return sql;
+    }
+
+    void beginRequest() {
+        REQUEST_STATEMENTS.set(new int[1]);
+    }
+
+    // Statements prepared on this thread since beginRequest(); a JDBC batch counts once
+    int endRequest() {
+        int[] statements = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        return statements == null ? 0 : statements[0];
+    }
+}
@@ -0,0 +1,48 @@
+package com.trainreservation.auth.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, as auth.http.sql.statements tagged
+ * with the method and the matched URI pattern (same tags as http.server.requests).
+ */
+@Component
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementMetrics sqlStatementMetrics;
+    private final Meter.MeterProvider<DistributionSummary> statementsPerRequest;
+
+    public SqlStatementMetricsFilter(SqlStatementMetrics sqlStatementMetrics, MeterRegistry meterRegistry) {
+        this.sqlStatementMetrics = sqlStatementMetrics;
+        this.statementsPerRequest = DistributionSummary.builder("auth.http.sql.statements")
+                .description("SQL statements issued while handling one request")
+                .baseUnit("statements")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlStatementMetrics.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = sqlStatementMetrics.endRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            statementsPerRequest.withTags(
+                    "method", request.getMethod(),
+                    "uri", pattern != null ? pattern.toString() : "UNKNOWN"
+            ).record(statements);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.trainreservation.auth.metrics;
+
+import com.trainreservation.auth.exception.AuthException;
+import com.trainreservation.auth.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every UserService call as auth.user.operation, tagged with the method name and its
+ * outcome: the ErrorCode's outcome (bad_password, not_found, deactivated, conflict, ...), conflict
+ * for a concurrent update, shed when the hashing pool is saturated, success or error.
+ */
+@Aspect
+@Component
+public class UserServiceMetricsAspect {
+
+    private final Meter.MeterProvider<Timer> operationTimer;
+
+    public UserServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.operationTimer = Timer.builder("auth.user.operation")
+                .description("UserService call latency by operation and outcome")
+                .withRegistry(meterRegistry);
+    }
+
+    @Around("execution(* com.trainreservation.auth.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long startedAt = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            operationTimer.withTags("operation", joinPoint.getSignature().getName(), "outcome", outcome)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static String outcome(Throwable e) {
+        if (e instanceof AuthException authException) {
+            return authException.getCode().getOutcome();
+        }
+        if (e instanceof HashingCapacityExceededException) {
+            return "shed";
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        return "error";
+    }
+}
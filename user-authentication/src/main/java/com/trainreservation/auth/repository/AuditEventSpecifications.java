@@ -0,0 +1,35 @@
+package com.trainreservation.auth.repository;
+
+import com.trainreservation.auth.entity.AuditEvent;
+import com.trainreservation.auth.entity.AuditEventType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specification factory for the admin audit filters. Pages are keyed on id, newest first,
+ * so each filter pairs with the (filter column, id) indexes on audit_events.
+ */
+public class AuditEventSpecifications {
+
+    private AuditEventSpecifications() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    public static Specification<AuditEvent> withFilters(AuditEventType type, Long userId, Long beforeId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (type != null) {
+                predicates.add(cb.equal(root.get("type"), type));
+            }
+            if (userId != null) {
+                predicates.add(cb.equal(root.get("userId"), userId));
+            }
+            if (beforeId != null) {
+                predicates.add(cb.lessThan(root.get("id"), beforeId));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
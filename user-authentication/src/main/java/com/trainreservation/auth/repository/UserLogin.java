@@ -0,0 +1,9 @@
+package com.trainreservation.auth.repository;
+
+/**
+ * Projection of the two login keys, used to build the availability Bloom filters.
+ */
+public interface UserLogin {
+    String getUsername();
+    String getEmail();
+}
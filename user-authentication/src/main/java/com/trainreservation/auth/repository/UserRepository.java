@@ -1,28 +1,132 @@
 package com.trainreservation.auth.repository;
 
+import com.trainreservation.auth.dto.UserDTO;
 import com.trainreservation.auth.entity.User;
 import com.trainreservation.auth.entity.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    Optional<User> findByUsernameOrEmail(String username, String email);
-    List<User> findByRole(UserRole role);
-    List<User> findByActive(boolean active);
+    boolean existsByUsername(String username);
+    boolean existsByEmail(String email);
+    boolean existsByUsernameAndIdNot(String username, Long id);
+    boolean existsByEmailAndIdNot(String email, Long id);
 
+    // Read-only listings project straight into UserDTO: no entity hydration, no dirty-check snapshots
+    @Query("SELECT new com.trainreservation.auth.dto.UserDTO(u.id, u.username, u.email, u.role, u.active, u.version) FROM User u")
+    List<UserDTO> findAllUserDTOs();
+
+    @Query("SELECT new com.trainreservation.auth.dto.UserDTO(u.id, u.username, u.email, u.role, u.active, u.version) FROM User u WHERE u.role = :role")
+    List<UserDTO> findUserDTOsByRole(UserRole role);
+
+    @Query("SELECT new com.trainreservation.auth.dto.UserDTO(u.id, u.username, u.email, u.role, u.active, u.version) FROM User u WHERE u.active = :active")
+    List<UserDTO> findUserDTOsByActive(boolean active);
+
+    @Query("SELECT u.role AS role, u.active AS active, COUNT(u) AS total FROM User u GROUP BY u.role, u.active")
+    List<UserRoleStatusCount> countByRoleAndActive();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.trainreservation.auth.dto.UserDTO(u.id, u.username, u.email, u.role, u.active) FROM User u ORDER BY u.id")
+    Stream<UserDTO> streamAllUserDTOsOrderById();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    Stream<UserLogin> streamAllLogins();
+
+    @Query("SELECT new com.trainreservation.auth.dto.UserDTO(u.id, u.username, u.email, u.role, u.active, u.version) FROM User u WHERE u.id = :id")
+    Optional<UserDTO> findUserDTOById(Long id);
+
+    // Duplicate checks for bulk import: one query per chunk instead of two per row
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT u.role FROM User u WHERE u.id = :id")
+    Optional<UserRole> findRoleById(Long id);
+
+    @Query("SELECT new com.trainreservation.auth.dto.UserDTO(u.id, u.username, u.email, u.role, u.active, u.version) FROM User u WHERE u.id IN :ids")
+    List<UserDTO> findUserDTOsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.trainreservation.auth.dto.UserDTO(u.id, u.username, u.email, u.role, u.active, u.version) FROM User u "
+            + "WHERE (:role IS NULL OR u.role = :role) AND (:active IS NULL OR u.active = :active) ORDER BY u.id")
+    List<UserDTO> findUserDTOsByFilter(UserRole role, Boolean active, Limit limit);
+
+    // Single-statement mutations: callers check the returned row count instead of loading the entity first.
+    // Those that change the representation bump the version; a non-null expectedVersion makes them
+    // conditional on it (If-Match), so a stale writer updates no rows instead of overwriting
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    // Also matched on the email, so a reset never lands on an account whose email changed meanwhile
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = LOCAL DATETIME WHERE u.id = :userId AND u.email = :email")
+    int updatePassword(Long userId, String email, String password);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = LOCAL DATETIME WHERE u.id = :userId")
+    int updatePasswordById(Long userId, String password);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.role = :role, u.version = u.version + 1, u.updatedAt = LOCAL DATETIME "
+            + "WHERE u.id = :userId AND (:expectedVersion IS NULL OR u.version = :expectedVersion)")
+    int updateUserRole(Long userId, UserRole role, Long expectedVersion);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.active = :active, u.version = u.version + 1, u.updatedAt = LOCAL DATETIME "
+            + "WHERE u.id = :userId AND u.active <> :active AND (:expectedVersion IS NULL OR u.version = :expectedVersion)")
+    int updateActiveIfChanged(Long userId, boolean active, Long expectedVersion);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :userId AND (:expectedVersion IS NULL OR u.version = :expectedVersion)")
+    int deleteUserById(Long userId, Long expectedVersion);
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // Set-based variants for bulk admin operations; the service chunks the id lists
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.active = :active, u.version = u.version + 1, u.updatedAt = LOCAL DATETIME "
+            + "WHERE u.id IN :ids AND u.active <> :active")
+    int updateActiveByIdIn(Collection<Long> ids, boolean active);
+
+    @Transactional
     @Modifying
-    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
-    void updatePassword(String email, String password);
+    @Query("UPDATE User u SET u.role = :role, u.version = u.version + 1, u.updatedAt = LOCAL DATETIME "
+            + "WHERE u.id IN :ids AND u.role <> :role")
+    int updateRoleByIdIn(Collection<Long> ids, UserRole role);
 
+    @Transactional
     @Modifying
-    @Query("UPDATE User u SET u.role = :role WHERE u.id = :userId")
-    void updateUserRole(Long userId, UserRole role);
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.trainreservation.auth.repository;
+
+import com.trainreservation.auth.entity.UserRole;
+
+/**
+ * Projection for the GROUP BY role, active aggregate used by the admin statistics.
+ */
+public interface UserRoleStatusCount {
+    UserRole getRole();
+    Boolean getActive();
+    Long getTotal();
+}
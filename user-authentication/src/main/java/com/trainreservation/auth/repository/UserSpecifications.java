@@ -0,0 +1,36 @@
+package com.trainreservation.auth.repository;
+
+import com.trainreservation.auth.entity.User;
+import com.trainreservation.auth.entity.UserRole;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specification factory for the admin user filters.
+ * Each filter only contributes a predicate when it is set, so unfiltered listings stay index-friendly.
+ */
+public class UserSpecifications {
+
+    private UserSpecifications() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    public static Specification<User> withFilters(UserRole role, Boolean active, LocalDateTime lastLoginBefore) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (role != null) {
+                predicates.add(cb.equal(root.get("role"), role));
+            }
+            if (active != null) {
+                predicates.add(cb.equal(root.get("active"), active));
+            }
+            if (lastLoginBefore != null) {
+                predicates.add(cb.or(cb.isNull(root.get("lastLoginAt")), cb.lessThan(root.get("lastLoginAt"), lastLoginBefore)));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.trainreservation.auth.security;
+
+import com.trainreservation.auth.entity.UserRole;
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import java.io.Serializable;
+
+/**
+ * Principal stored in the SecurityContext in both session and token mode.
+ * getName() is the user id, matching what the session mode used to store.
+ */
+@Value
+public class AuthPrincipal implements AuthenticatedPrincipal, Serializable {
+    Long id;
+    String username;
+    UserRole role;
+
+    @Override
+    public String getName() {
+        return id.toString();
+    }
+}
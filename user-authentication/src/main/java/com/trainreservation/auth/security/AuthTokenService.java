@@ -0,0 +1,136 @@
+package com.trainreservation.auth.security;
+
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+
+/**
+ * Issues and verifies compact HMAC-SHA256 signed tokens for the stateless auth mode (auth.mode=token).
+ *
+ * Token format: base64url(id:role:expiryEpochSeconds:username) + "." + base64url(hmac).
+ * Claims are trusted until expiry, so a role change or deactivation takes effect on the
+ * next login; keep auth.token.ttl short accordingly.
+ */
+@Slf4j
+@Component
+public class AuthTokenService {
+
+    public static final String COOKIE_NAME = "AUTH_TOKEN";
+    public static final String TOKEN_HEADER = "X-Auth-Token";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final boolean secureCookie;
+    private final ThreadLocal<Mac> mac;
+
+    public AuthTokenService(
+            @Value("${auth.mode:session}") String mode,
+            @Value("${auth.token.secret:}") String secret,
+            @Value("${auth.token.ttl:30m}") Duration ttl,
+            @Value("${auth.token.cookie-secure:false}") boolean secureCookie) {
+        this.enabled = "token".equalsIgnoreCase(mode);
+        this.ttl = ttl;
+        this.secureCookie = secureCookie;
+
+        byte[] key;
+        if (secret.isEmpty()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            if (enabled) {
+                log.warn("auth.token.secret is not set; using a random key, tokens will not survive a restart or work across nodes");
+            }
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+            if (key.length < 32) {
+                throw new IllegalStateException("auth.token.secret must be at least 32 bytes");
+            }
+        }
+        SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+                instance.init(keySpec);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String issue(UserDTO user) {
+        long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+        String claims = user.getId() + ":" + user.getRole().name() + ":" + expiresAt + ":" + user.getUsername();
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Returns the principal carried by a valid, unexpired token, or null otherwise.
+     */
+    public AuthPrincipal verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return null;
+            }
+            String[] claims = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(":", 4);
+            if (claims.length != 4 || Long.parseLong(claims[2]) < Instant.now().getEpochSecond()) {
+                return null;
+            }
+            return new AuthPrincipal(Long.valueOf(claims[0]), claims[3], UserRole.valueOf(claims[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public ResponseCookie createCookie(String token) {
+        return ResponseCookie.from(COOKIE_NAME, token)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(ttl)
+                .build();
+    }
+
+    private byte[] sign(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static Authentication toAuthentication(AuthPrincipal principal) {
+        return new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                Collections.singletonList(new SimpleGrantedAuthority(principal.getRole().toString()))
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package com.trainreservation.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trainreservation.auth.cache.UserCache;
+import com.trainreservation.auth.exception.TooManyAttemptsException;
+import com.trainreservation.auth.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits login and password reset attempts per normalized identifier and per client IP,
+ * before any database lookup or BCrypt work is done. Username/email availability probes get a
+ * per-IP limit of their own, so a sign-up form checking as the user types does not eat into the
+ * login attempts of everyone behind the same address.
+ *
+ * Each key gets a lock-free TokenBucket holding up to N attempts, refilled at N per period.
+ * Buckets live in bounded Caffeine maps (internally striped) and expire once idle for a full
+ * period, at which point they would be full again anyway, so expiry never loosens a limit.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final BucketSpec identifierSpec;
+    private final BucketSpec ipSpec;
+    private final BucketSpec availabilitySpec;
+    private final Cache<String, TokenBucket> identifierBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> availabilityBuckets;
+
+    public LoginThrottle(
+            @Value("${auth.throttle.enabled:true}") boolean enabled,
+            @Value("${auth.throttle.identifier.attempts:5}") int identifierAttempts,
+            @Value("${auth.throttle.identifier.period:1m}") Duration identifierPeriod,
+            @Value("${auth.throttle.ip.attempts:30}") int ipAttempts,
+            @Value("${auth.throttle.ip.period:1m}") Duration ipPeriod,
+            @Value("${auth.throttle.availability.attempts:20}") int availabilityAttempts,
+            @Value("${auth.throttle.availability.period:1m}") Duration availabilityPeriod,
+            @Value("${auth.throttle.max-entries:100000}") long maxEntries) {
+        this.enabled = enabled;
+        this.identifierSpec = new BucketSpec(identifierAttempts, identifierPeriod);
+        this.ipSpec = new BucketSpec(ipAttempts, ipPeriod);
+        this.availabilitySpec = new BucketSpec(availabilityAttempts, availabilityPeriod);
+        this.identifierBuckets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(identifierPeriod)
+                .build();
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(ipPeriod)
+                .build();
+        this.availabilityBuckets = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(availabilityPeriod)
+                .build();
+    }
+
+    /**
+     * Takes one attempt from both the IP and the identifier bucket, or throws
+     * TooManyAttemptsException (429) when either is empty.
+     */
+    public void check(String clientIp, String identifier) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long waitNanos = acquire(ipBuckets, ipSpec, clientIp, now);
+        if (waitNanos == 0 && identifier != null) {
+            waitNanos = acquire(identifierBuckets, identifierSpec, UserCache.normalize(identifier), now);
+        }
+        rejectIfWaiting(waitNanos);
+    }
+
+    /**
+     * Takes one availability probe from the client IP's bucket, or throws
+     * TooManyAttemptsException (429) when it is empty.
+     */
+    public void checkAvailability(String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        rejectIfWaiting(acquire(availabilityBuckets, availabilitySpec, clientIp, System.nanoTime()));
+    }
+
+    private static void rejectIfWaiting(long waitNanos) {
+        if (waitNanos > 0) {
+            throw new TooManyAttemptsException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+    }
+
+    private static long acquire(Cache<String, TokenBucket> buckets, BucketSpec spec, String key, long now) {
+        TokenBucket bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            bucket = buckets.get(key, k -> spec.newBucket(now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    private record BucketSpec(long emissionIntervalNanos, long burstToleranceNanos) {
+
+        BucketSpec(int attempts, Duration period) {
+            this(period.toNanos() / attempts, period.toNanos() / attempts * (attempts - 1));
+        }
+
+        TokenBucket newBucket(long now) {
+            return new TokenBucket(emissionIntervalNanos, burstToleranceNanos, now);
+        }
+    }
+}
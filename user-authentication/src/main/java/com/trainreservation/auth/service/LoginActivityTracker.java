@@ -0,0 +1,144 @@
+package com.trainreservation.auth.service;
+
+import com.trainreservation.auth.dto.UserDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind tracking of last login time and login count.
+ *
+ * A successful login only merges into an in-memory entry for its user id, so any number of
+ * logins between two flushes collapse into one pending update. A single thread flushes the
+ * pending entries every flush-interval as batched UPDATEs, and once more on shutdown. If a
+ * flush fails the entries are merged back and retried with the next one.
+ *
+ * last_login_at only ever moves forward, so several instances flushing the same user cannot
+ * turn it back. A crash loses at most one interval of activity, which is acceptable for
+ * dormant-account reporting.
+ */
+@Slf4j
+@Component
+public class LoginActivityTracker {
+
+    private static final String UPDATE_SQL = "UPDATE users SET "
+            + "last_login_at = CASE WHEN last_login_at IS NULL OR last_login_at < ? THEN ? ELSE last_login_at END, "
+            + "login_count = login_count + ? WHERE id = ?";
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public LoginActivityTracker(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${auth.login-activity.enabled:true}") boolean enabled,
+            @Value("${auth.login-activity.flush-interval:30s}") Duration flushInterval,
+            @Value("${auth.login-activity.batch-size:500}") int batchSize) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-activity-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("auth.login.activity.pending", pending, Map::size)
+                .description("Users with login activity not yet written to the database")
+                .register(meterRegistry);
+        if (enabled) {
+            long intervalMillis = flushInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void loginSucceeded(Long userId) {
+        if (enabled) {
+            pending.merge(userId, new Pending(LocalDateTime.now(), 1), Pending::plus);
+        }
+    }
+
+    /**
+     * Adds activity that is not flushed yet, so admin views are current between flushes.
+     */
+    public UserDTO applyPending(UserDTO user) {
+        Pending unflushed = pending.get(user.getId());
+        if (unflushed != null) {
+            if (user.getLastLoginAt() == null || user.getLastLoginAt().isBefore(unflushed.lastLoginAt())) {
+                user.setLastLoginAt(unflushed.lastLoginAt());
+            }
+            user.setLoginCount((user.getLoginCount() != null ? user.getLoginCount() : 0) + unflushed.count());
+        }
+        return user;
+    }
+
+    /**
+     * Writes all pending activity and returns the number of users updated. Called by the
+     * scheduler; synchronized so a shutdown flush never overlaps a scheduled one.
+     */
+    public synchronized int flush() {
+        List<Map.Entry<Long, Pending>> batch = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            // remove() hands over the entry atomically; a login racing with it starts a new one
+            Pending taken = pending.remove(userId);
+            if (taken != null) {
+                batch.add(Map.entry(userId, taken));
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batchSize, (statement, entry) -> {
+                Timestamp lastLoginAt = Timestamp.valueOf(entry.getValue().lastLoginAt());
+                statement.setTimestamp(1, lastLoginAt);
+                statement.setTimestamp(2, lastLoginAt);
+                statement.setLong(3, entry.getValue().count());
+                statement.setLong(4, entry.getKey());
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Pending::plus));
+            throw e;
+        }
+        return batch.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Login activity flush failed, retrying with the next one: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        if (enabled) {
+            flushQuietly();
+        }
+    }
+
+    private record Pending(LocalDateTime lastLoginAt, long count) {
+
+        Pending plus(Pending other) {
+            return new Pending(lastLoginAt.isAfter(other.lastLoginAt) ? lastLoginAt : other.lastLoginAt, count + other.count);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.trainreservation.auth.service;
+
+import com.trainreservation.auth.dto.PasswordHashingMetricsDTO;
+import com.trainreservation.auth.exception.HashingCapacityExceededException;
+import com.trainreservation.auth.util.PasswordEncoderSingleton;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt encode/matches on a dedicated, core-sized pool with a bounded queue.
+ *
+ * Request threads only wait for the result, so a login burst cannot pin every Tomcat
+ * worker on CPU. When the queue is full, or a task waits longer than max-wait, the call
+ * fails fast with HashingCapacityExceededException (503 + Retry-After) instead of
+ * letting latency grow without bound.
+ *
+ * On startup the BCrypt cost is either fixed (auth.hashing.bcrypt.strength, the default) or,
+ * with strength 0, calibrated against auth.hashing.bcrypt.target-time on this host.
+ *
+ * Hash and queue-wait times are published as Micrometer histograms (auth.password.hash,
+ * auth.password.queue.wait) next to the in-process figures returned by getMetrics().
+ */
+@Slf4j
+@Component
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final String unmatchableHash;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LongAdder timedOutTasks = new LongAdder();
+    private final LongAdder startedTasks = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanosSeen = new LongAccumulator(Math::max, 0);
+    private final LongAdder hashedTasks = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanosSeen = new LongAccumulator(Math::max, 0);
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public PasswordHashingService(
+            MeterRegistry meterRegistry,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.hashing.max-wait:3s}") Duration maxWait,
+            @Value("${auth.hashing.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${auth.hashing.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${auth.hashing.bcrypt.target-time:50ms}") Duration bcryptTargetTime,
+            @Value("${auth.hashing.bcrypt.min-strength:10}") int bcryptMinStrength,
+            @Value("${auth.hashing.bcrypt.max-strength:16}") int bcryptMaxStrength) {
+        if (bcryptStrength > 0) {
+            this.passwordEncoder = PasswordEncoderSingleton.useStrength(bcryptStrength);
+        } else {
+            this.passwordEncoder = PasswordEncoderSingleton.calibrate(bcryptTargetTime, bcryptMinStrength, bcryptMaxStrength);
+        }
+        log.info("Using BCrypt strength {} for password hashing, rehashing below {}",
+                PasswordEncoderSingleton.getStrength(), PasswordEncoderSingleton.getRehashBelow());
+        // Hash of a random secret nobody knows: checking it costs exactly what checking a real hash does
+        this.unmatchableHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        this.queueCapacity = queueCapacity;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time a BCrypt task waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueFullCounter = rejections(meterRegistry, "queue_full");
+        this.timeoutCounter = rejections(meterRegistry, "timeout");
+        Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("BCrypt tasks waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.threads.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently running BCrypt")
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("BCrypt time per encode or matches call, excluding queue wait")
+                .tag("operation", operation)
+                .tag("strength", String.valueOf(PasswordEncoderSingleton.getStrength()))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.password.rejected")
+                .description("BCrypt calls shed with 503 because the hashing pool was saturated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hashes on the calling thread, bypassing the bounded pool and load shedding. Only for
+     * offline work such as bulk imports, which bring their own pool and must not be shed.
+     */
+    public String encodeInline(CharSequence rawPassword) {
+        long startedAt = System.nanoTime();
+        try {
+            return passwordEncoder.encode(rawPassword);
+        } finally {
+            recordHash(encodeTimer, System.nanoTime() - startedAt);
+        }
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Spends one full matches() on a hash no password opens, so a login for an unknown account
+     * costs the same BCrypt time (and is shed the same way) as a wrong password.
+     */
+    public void matchesNone(CharSequence rawPassword) {
+        matches(rawPassword, unmatchableHash);
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        return PasswordEncoderSingleton.needsRehash(encodedPassword);
+    }
+
+    private <T> T execute(Timer hashTimer, Supplier<T> hashTask) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                recordWait(startedAt - submittedAt);
+                try {
+                    return hashTask.get();
+                } finally {
+                    recordHash(hashTimer, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedTasks.increment();
+            queueFullCounter.increment();
+            throw new HashingCapacityExceededException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutTasks.increment();
+            timeoutCounter.increment();
+            throw new HashingCapacityExceededException(retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void recordWait(long nanos) {
+        startedTasks.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanosSeen.accumulate(nanos);
+        queueWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordHash(Timer hashTimer, long nanos) {
+        hashTimer.record(nanos, TimeUnit.NANOSECONDS);
+        hashedTasks.increment();
+        totalHashNanos.add(nanos);
+        maxHashNanosSeen.accumulate(nanos);
+    }
+
+    public PasswordHashingMetricsDTO getMetrics() {
+        PasswordHashingMetricsDTO metrics = new PasswordHashingMetricsDTO();
+        metrics.setPoolSize(executor.getPoolSize());
+        metrics.setActiveThreads(executor.getActiveCount());
+        metrics.setQueueDepth(executor.getQueue().size());
+        metrics.setQueueCapacity(queueCapacity);
+        metrics.setCompletedTasks(executor.getCompletedTaskCount());
+        metrics.setRejectedTasks(rejectedTasks.sum());
+        metrics.setTimedOutTasks(timedOutTasks.sum());
+        metrics.setAverageWaitMillis(averageMillis(totalWaitNanos.sum(), startedTasks.sum()));
+        metrics.setMaxWaitMillis(maxWaitNanosSeen.get() / 1_000_000.0);
+        metrics.setAverageHashMillis(averageMillis(totalHashNanos.sum(), hashedTasks.sum()));
+        metrics.setMaxHashMillis(maxHashNanosSeen.get() / 1_000_000.0);
+        return metrics;
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0.0 : totalNanos / 1_000_000.0 / count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,336 @@
+package com.trainreservation.auth.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainreservation.auth.cache.UserAvailabilityIndex;
+import com.trainreservation.auth.cache.UserSearchIndex;
+import com.trainreservation.auth.cache.UserCache;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.dto.UserExportFormat;
+import com.trainreservation.auth.dto.UserImportErrorDTO;
+import com.trainreservation.auth.dto.UserImportResultDTO;
+import com.trainreservation.auth.entity.User;
+import com.trainreservation.auth.entity.UserChangeType;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.exception.ErrorCode;
+import com.trainreservation.auth.feed.UserChangeFeed;
+import com.trainreservation.auth.repository.UserRepository;
+import com.trainreservation.auth.util.DTOMapperFactory;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON file of new accounts into the users table.
+ *
+ * Rows are processed in chunks: validation and duplicate checks run in memory and against
+ * the database with one query per chunk, BCrypt runs in parallel on a dedicated fork-join
+ * pool, and inserts go out as Hibernate JDBC batches in one transaction per chunk. Bad rows
+ * are reported by line number and never abort the import.
+ *
+ * CSV files need a header naming the columns; username, email and password are required,
+ * role (default PASSENGER) and active (default true) are optional. Quoted fields may not
+ * span lines.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final UserStatsCounter userStatsCounter;
+    private final UserAvailabilityIndex availabilityIndex;
+    private final UserSearchIndex searchIndex;
+    private final UserChangeFeed userChangeFeed;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool hashingPool;
+    private final int chunkSize;
+
+    public UserImportService(
+            UserRepository userRepository,
+            PasswordHashingService passwordHashingService,
+            UserStatsCounter userStatsCounter,
+            UserAvailabilityIndex availabilityIndex,
+            UserSearchIndex searchIndex,
+            UserChangeFeed userChangeFeed,
+            ObjectMapper objectMapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${auth.import.hash-parallelism:0}") int hashParallelism,
+            @Value("${auth.import.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.userStatsCounter = userStatsCounter;
+        this.availabilityIndex = availabilityIndex;
+        this.searchIndex = searchIndex;
+        this.userChangeFeed = userChangeFeed;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashingPool = new ForkJoinPool(hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+
+    public UserImportResultDTO importUsers(UserExportFormat format, InputStream inputStream) throws IOException {
+        long startedAt = System.nanoTime();
+        UserImportResultDTO result = new UserImportResultDTO();
+        ImportState state = new ImportState(result);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), 64 * 1024);
+        List<String> header = null;
+        List<PendingUser> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == UserExportFormat.CSV && header == null) {
+                header = parseCsvLine(line).stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+                if (!header.containsAll(List.of("username", "email", "password"))) {
+                    throw ErrorCode.INVALID_IMPORT_HEADER.exception();
+                }
+                continue;
+            }
+
+            result.setTotalRows(result.getTotalRows() + 1);
+            try {
+                Map<String, String> fields = format == UserExportFormat.CSV ? csvFields(header, line) : jsonFields(line);
+                chunk.add(new PendingUser(lineNumber, toUserDTO(fields)));
+            } catch (IllegalArgumentException e) {
+                state.reject(lineNumber, null, e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, state);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, state);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setUsersPerSecond(elapsedNanos == 0 ? 0.0 : result.getImported() * 1_000_000_000.0 / elapsedNanos);
+        log.info("Imported {} of {} users in {} ms ({} users/sec, {} rejected)", result.getImported(),
+                result.getTotalRows(), result.getElapsedMillis(), Math.round(result.getUsersPerSecond()), result.getFailed());
+        return result;
+    }
+
+    private void importChunk(List<PendingUser> chunk, ImportState state) {
+        List<PendingUser> accepted = new ArrayList<>(chunk.size());
+        for (PendingUser pending : chunk) {
+            UserDTO user = pending.user();
+            Set<ConstraintViolation<UserDTO>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                state.reject(pending.line(), user.getUsername(), violations.stream()
+                        .map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; ")));
+            } else if (!state.usernames.add(UserCache.normalize(user.getUsername()))) {
+                state.reject(pending.line(), user.getUsername(), "Duplicate username in file");
+            } else if (!state.emails.add(UserCache.normalize(user.getEmail()))) {
+                state.reject(pending.line(), user.getUsername(), "Duplicate email in file");
+            } else {
+                accepted.add(pending);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingUsernames = normalized(userRepository.findExistingUsernames(
+                accepted.stream().map(pending -> pending.user().getUsername()).toList()));
+        Set<String> existingEmails = normalized(userRepository.findExistingEmails(
+                accepted.stream().map(pending -> pending.user().getEmail()).toList()));
+        List<PendingUser> fresh = new ArrayList<>(accepted.size());
+        for (PendingUser pending : accepted) {
+            if (existingUsernames.contains(UserCache.normalize(pending.user().getUsername()))) {
+                state.reject(pending.line(), pending.user().getUsername(), "Username already exists");
+            } else if (existingEmails.contains(UserCache.normalize(pending.user().getEmail()))) {
+                state.reject(pending.line(), pending.user().getUsername(), "Email already exists");
+            } else {
+                fresh.add(pending);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<User> users = hashingPool.submit(() -> fresh.parallelStream().map(this::toEntity).toList()).join();
+        // Into the availability filters before the insert; rows that then fail stay as false positives
+        users.forEach(user -> availabilityIndex.add(user.getUsername(), user.getEmail()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+            users.forEach(state::accept);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration won a username or email after the duplicate check; retry row by row
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                user.setId(null);
+                try {
+                    userRepository.save(user);
+                    state.accept(user);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    state.reject(fresh.get(i).line(), user.getUsername(), "Username or email already exists");
+                }
+            }
+        }
+    }
+
+    private User toEntity(PendingUser pending) {
+        UserDTO dto = pending.user();
+        User user = new User();
+        user.setUsername(dto.getUsername());
+        user.setEmail(dto.getEmail());
+        user.setPassword(passwordHashingService.encodeInline(dto.getPassword()));
+        user.setRole(dto.getRole());
+        user.setActive(dto.isActive());
+        return user;
+    }
+
+    private static UserDTO toUserDTO(Map<String, String> fields) {
+        UserDTO user = new UserDTO();
+        user.setUsername(fields.get("username"));
+        user.setEmail(fields.get("email"));
+        user.setPassword(fields.get("password"));
+
+        String role = fields.get("role");
+        try {
+            user.setRole(role == null || role.isBlank() ? UserRole.PASSENGER : UserRole.valueOf(role.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown role: " + role);
+        }
+
+        String active = fields.get("active");
+        if (active == null || active.isBlank()) {
+            user.setActive(true);
+        } else if (active.trim().equalsIgnoreCase("true") || active.trim().equalsIgnoreCase("false")) {
+            user.setActive(Boolean.parseBoolean(active.trim()));
+        } else {
+            throw new IllegalArgumentException("Active must be true or false: " + active);
+        }
+        return user;
+    }
+
+    private Map<String, String> jsonFields(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (String name : List.of("username", "email", "password", "role", "active")) {
+            JsonNode value = node.get(name);
+            if (value != null && !value.isNull()) {
+                fields.put(name, value.asText());
+            }
+        }
+        return fields;
+    }
+
+    private static Map<String, String> csvFields(List<String> header, String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Set<String> normalized(List<String> values) {
+        return values.stream().map(UserCache::normalize).collect(Collectors.toSet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private record PendingUser(long line, UserDTO user) {
+    }
+
+    // Names seen so far in this file, so duplicates are caught across chunks
+    private class ImportState {
+        private final UserImportResultDTO result;
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+
+        ImportState(UserImportResultDTO result) {
+            this.result = result;
+        }
+
+        void accept(User user) {
+            result.setImported(result.getImported() + 1);
+            userStatsCounter.userAdded(user.getRole(), user.isActive());
+            searchIndex.add(user.getId(), user.getUsername(), user.getEmail());
+            userChangeFeed.publish(UserChangeType.CREATED, user.getId(), DTOMapperFactory.createUserDTO(user));
+        }
+
+        void reject(long line, String username, String message) {
+            result.setFailed(result.getFailed() + 1);
+            result.getErrors().add(new UserImportErrorDTO(line, username, message));
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.trainreservation.auth.service;
 
 import com.trainreservation.auth.dto.*;
 import com.trainreservation.auth.entity.UserRole;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
@@ -9,18 +11,28 @@ public interface UserService {
     UserDTO registerUser(UserDTO userDTO);
     UserDTO loginUser(LoginRequest loginRequest);
     boolean resetPassword(PasswordResetRequest request);
+    AvailabilityDTO checkAvailability(String username, String email);
 
     // User Management (Admin only)
     List<UserDTO> getAllUsers();
     UserDTO getUserById(Long id);
-    UserDTO updateUserRole(Long userId, UserRole newRole);
-    boolean deactivateUser(Long userId);
-    boolean activateUser(Long userId);
-    boolean deleteUser(Long userId, Long currentUserId);
+    UserDTO getUserDetails(Long id);
+    // expectedVersion: null for an unconditional change, else the If-Match version the caller last saw
+    UserDTO updateUserRole(Long userId, UserRole newRole, Long expectedVersion);
+    boolean deactivateUser(Long userId, Long expectedVersion);
+    boolean activateUser(Long userId, Long expectedVersion);
+    boolean deleteUser(Long userId, Long currentUserId, Long expectedVersion);
     List<UserDTO> getUsersByRole(UserRole role);
     List<UserDTO> getActiveUsers(boolean active);
+    UserStatsDTO getUserStats();
+    UserPageDTO getUsersPage(UserPageRequest pageRequest);
+    UserSearchPageDTO searchUsers(UserSearchRequest searchRequest);
+    long exportUsers(UserExportFormat format, OutputStream outputStream) throws IOException;
+    BulkUserResultDTO bulkUpdateActive(BulkUserRequest request, boolean active, Long currentUserId);
+    BulkUserResultDTO bulkUpdateRole(BulkUserRequest request, UserRole newRole, Long currentUserId);
+    BulkUserResultDTO bulkDelete(BulkUserRequest request, Long currentUserId);
 
     // User Self-management
-    UserDTO updateProfile(Long userId, UserUpdateDTO userUpdateDTO);
+    UserDTO updateProfile(Long userId, UserUpdateDTO userUpdateDTO, Long expectedVersion);
     boolean changePassword(Long userId, PasswordChangeRequest request);
 }
\ No newline at end of file
@@ -1,192 +1,668 @@
 package com.trainreservation.auth.service;
 
+import com.trainreservation.auth.audit.AuditLog;
+import com.trainreservation.auth.cache.CachedUser;
+import com.trainreservation.auth.cache.UserAvailabilityIndex;
+import com.trainreservation.auth.cache.UserCache;
+import com.trainreservation.auth.cache.UserSearchIndex;
+import com.trainreservation.auth.datasource.ReadWriteRoutingDataSource;
 import com.trainreservation.auth.dto.*;
+import com.trainreservation.auth.entity.AuditEventType;
 import com.trainreservation.auth.entity.User;
+import com.trainreservation.auth.entity.UserChangeType;
 import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.exception.AuthException;
+import com.trainreservation.auth.exception.ErrorCode;
+import com.trainreservation.auth.exception.HashingCapacityExceededException;
+import com.trainreservation.auth.feed.UserChangeFeed;
 import com.trainreservation.auth.repository.UserRepository;
-import com.trainreservation.auth.util.PasswordEncoderSingleton;
+import com.trainreservation.auth.repository.UserSpecifications;
 import com.trainreservation.auth.util.DTOMapperFactory;
+import com.trainreservation.auth.util.KeysetCursorCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder = PasswordEncoderSingleton.getInstance();
+    private final UserStatsCounter userStatsCounter;
+    private final PasswordHashingService passwordHashingService;
+    private final UserCache userCache;
+    private final UserAvailabilityIndex availabilityIndex;
+    private final UserSearchIndex searchIndex;
+    private final ObjectMapper objectMapper;
+    private final AuditLog auditLog;
+    private final LoginActivityTracker loginActivityTracker;
+    private final UserChangeFeed userChangeFeed;
+
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+    private static final int BULK_MAX_USERS = 10000;
+    private static final int BULK_CHUNK_SIZE = 1000;
 
     @Override
     public UserDTO registerUser(UserDTO userDTO) {
-        // Validation: Check if username or email already exists
-        if (userRepository.findByUsername(userDTO.getUsername()).isPresent()) {
-            throw new RuntimeException("Username already exists");
+        // Validation: Check if username or email already exists. Names the Bloom filter has seen
+        // are confirmed here, so likely duplicates are rejected before any hashing. The filter
+        // misses writes from other instances, so for the rest the unique keys decide at insert.
+        // Checked on the primary: a lagging replica would miss a registration that just committed
+        if (availabilityIndex.mightContainUsername(userDTO.getUsername())
+                && ReadWriteRoutingDataSource.onPrimary(() -> userRepository.existsByUsername(userDTO.getUsername()))) {
+            throw ErrorCode.USERNAME_TAKEN.exception();
         }
-        if (userRepository.findByEmail(userDTO.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already exists");
+        if (availabilityIndex.mightContainEmail(userDTO.getEmail())
+                && ReadWriteRoutingDataSource.onPrimary(() -> userRepository.existsByEmail(userDTO.getEmail()))) {
+            throw ErrorCode.EMAIL_TAKEN.exception();
         }
 
         // Create new user
         User user = new User();
         user.setUsername(userDTO.getUsername());
         user.setEmail(userDTO.getEmail());
-        user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+        user.setPassword(passwordHashingService.encode(userDTO.getPassword()));
         user.setRole(userDTO.getRole() != null ? userDTO.getRole() : UserRole.PASSENGER);
         user.setActive(true);
 
-        User savedUser = userRepository.save(user);
-        return DTOMapperFactory.createUserDTO(savedUser);
+        // Add before inserting: a failed insert only leaves a harmless false positive behind
+        availabilityIndex.add(user.getUsername(), user.getEmail());
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (ReadWriteRoutingDataSource.onPrimary(() -> userRepository.existsByUsername(userDTO.getUsername()))) {
+                throw ErrorCode.USERNAME_TAKEN.exception();
+            }
+            if (ReadWriteRoutingDataSource.onPrimary(() -> userRepository.existsByEmail(userDTO.getEmail()))) {
+                throw ErrorCode.EMAIL_TAKEN.exception();
+            }
+            throw e;
+        }
+        searchIndex.add(savedUser.getId(), savedUser.getUsername(), savedUser.getEmail());
+        userStatsCounter.userAdded(savedUser.getRole(), savedUser.isActive());
+        UserDTO registered = DTOMapperFactory.createUserDTO(savedUser);
+        userChangeFeed.publish(UserChangeType.CREATED, registered.getId(), registered);
+        return registered;
     }
 
     @Override
     public UserDTO loginUser(LoginRequest loginRequest) {
-        // Find user by username or email
-        User user = userRepository.findByUsernameOrEmail(loginRequest.getUsernameOrEmail(),
-                        loginRequest.getUsernameOrEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Find user by username or email, from the cache when possible, else from the primary
+        // so that a fresh registration or password change is never judged against a stale replica
+        CachedUser user = userCache.getByUsernameOrEmail(loginRequest.getUsernameOrEmail());
+        if (user == null) {
+            long stamp = userCache.stamp();
+            user = userCache.put(ReadWriteRoutingDataSource.onPrimary(() -> findByUsernameOrEmail(loginRequest.getUsernameOrEmail()))
+                    .orElseThrow(() -> {
+                        // Run a full BCrypt comparison anyway, so an unknown login takes as long as a wrong password
+                        passwordHashingService.matchesNone(loginRequest.getPassword());
+                        return loginFailed(null, loginRequest, ErrorCode.UNKNOWN_USER);
+                    }), stamp);
+        }
 
         // Validate password
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid password");
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
+            throw loginFailed(user.getId(), loginRequest, ErrorCode.WRONG_PASSWORD);
         }
 
         // Check if account is active
         if (!user.isActive()) {
-            throw new RuntimeException("Account is deactivated");
+            throw loginFailed(user.getId(), loginRequest, ErrorCode.ACCOUNT_DEACTIVATED);
         }
 
+        // Transparently move the stored hash to the current algorithm and cost
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            try {
+                String upgradedHash = passwordHashingService.encode(loginRequest.getPassword());
+                if (userRepository.updatePasswordById(user.getId(), upgradedHash) == 1) {
+                    // Not re-cached from this snapshot, which may predate another change
+                    userCache.evict(user.getId());
+                }
+            } catch (HashingCapacityExceededException e) {
+                // Keep the old hash under load; the upgrade is retried on the next login
+            }
+        }
+
+        // Coalesced in memory and written behind, so a login adds no UPDATE of its own
+        loginActivityTracker.loginSucceeded(user.getId());
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, user.getId(), loginRequest.getUsernameOrEmail(), null);
         return DTOMapperFactory.createUserDTO(user);
     }
 
+    private AuthException loginFailed(Long userId, LoginRequest loginRequest, ErrorCode code) {
+        auditLog.record(AuditEventType.LOGIN_FAILURE, userId, loginRequest.getUsernameOrEmail(), code.getOutcome());
+        return code.exception();
+    }
+
+    // Two unique-index point lookups instead of an OR predicate the optimizer may turn into a scan
+    private Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
+        if (usernameOrEmail.indexOf('@') < 0) {
+            return userRepository.findByUsername(usernameOrEmail);
+        }
+        Optional<User> user = userRepository.findByEmail(usernameOrEmail);
+        return user.isPresent() ? user : userRepository.findByUsername(usernameOrEmail);
+    }
+
     @Override
-    public UserDTO updateProfile(Long userId, UserUpdateDTO userUpdateDTO) {
+    @Transactional
+    public UserDTO updateProfile(Long userId, UserUpdateDTO userUpdateDTO, Long expectedVersion) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(ErrorCode.USER_NOT_FOUND::exception);
+        if (expectedVersion != null && user.getVersion() != expectedVersion) {
+            throw ErrorCode.VERSION_MISMATCH.exception();
+        }
+        String oldUsername = user.getUsername();
+        String oldEmail = user.getEmail();
 
         // Update allowed fields only
-        if (userUpdateDTO.getUsername() != null && !userUpdateDTO.getUsername().isEmpty()) {
+        if (userUpdateDTO.getUsername() != null && !userUpdateDTO.getUsername().isEmpty()
+                && !userUpdateDTO.getUsername().equals(oldUsername)) {
             // Check if new username is not taken by others
-            userRepository.findByUsername(userUpdateDTO.getUsername())
-                    .ifPresent(existingUser -> {
-                        if (!existingUser.getId().equals(userId)) {
-                            throw new RuntimeException("Username already taken");
-                        }
-                    });
+            if (userRepository.existsByUsernameAndIdNot(userUpdateDTO.getUsername(), userId)) {
+                throw ErrorCode.USERNAME_TAKEN.exception();
+            }
             user.setUsername(userUpdateDTO.getUsername());
         }
 
-        if (userUpdateDTO.getEmail() != null && !userUpdateDTO.getEmail().isEmpty()) {
+        if (userUpdateDTO.getEmail() != null && !userUpdateDTO.getEmail().isEmpty()
+                && !userUpdateDTO.getEmail().equals(oldEmail)) {
             // Check if new email is not taken by others
-            userRepository.findByEmail(userUpdateDTO.getEmail())
-                    .ifPresent(existingUser -> {
-                        if (!existingUser.getId().equals(userId)) {
-                            throw new RuntimeException("Email already taken");
-                        }
-                    });
+            if (userRepository.existsByEmailAndIdNot(userUpdateDTO.getEmail(), userId)) {
+                throw ErrorCode.EMAIL_TAKEN.exception();
+            }
             user.setEmail(userUpdateDTO.getEmail());
         }
 
-        User updatedUser = userRepository.save(user);
-        return DTOMapperFactory.createUserDTO(updatedUser);
+        // New names go into the availability filters now, old ones leave once the rename is committed
+        boolean renamed = !user.getUsername().equals(oldUsername);
+        boolean emailChanged = !user.getEmail().equals(oldEmail);
+        if (renamed || emailChanged) {
+            // Flushed here rather than at commit so a concurrent update fails now (the UPDATE is
+            // conditional on the version read above) and the response carries the new version
+            try {
+                userRepository.flush();
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null) {
+                    throw ErrorCode.VERSION_MISMATCH.exception();
+                }
+                throw e;
+            }
+        }
+        if (renamed) {
+            availabilityIndex.addUsername(user.getUsername());
+        }
+        if (emailChanged) {
+            availabilityIndex.addEmail(user.getEmail());
+        }
+
+        afterCommit(() -> {
+            userCache.put(user);
+            if (renamed) {
+                availabilityIndex.removeUsername(oldUsername);
+            }
+            if (emailChanged) {
+                availabilityIndex.removeEmail(oldEmail);
+            }
+            if (renamed || emailChanged) {
+                searchIndex.remove(userId, oldUsername);
+                searchIndex.add(userId, user.getUsername(), user.getEmail());
+                userChangeFeed.publish(UserChangeType.UPDATED, userId, DTOMapperFactory.createUserDTO(user));
+            }
+        });
+        return DTOMapperFactory.createUserDTO(user);
     }
 
     @Override
     public boolean changePassword(Long userId, PasswordChangeRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // No transaction around hashing: a BCrypt round must not hold a pooled connection
+        CachedUser user = userCache.getById(userId);
+        if (user == null) {
+            user = loadFromPrimary(userId);
+        }
 
         // Verify current password
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
-            throw new RuntimeException("Current password is incorrect");
+        if (!passwordHashingService.matches(request.getCurrentPassword(), user.getPassword())) {
+            throw ErrorCode.CURRENT_PASSWORD_INCORRECT.exception();
         }
 
         // Set new password
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        String newHash = passwordHashingService.encode(request.getNewPassword());
+        if (userRepository.updatePasswordById(userId, newHash) == 0) {
+            throw ErrorCode.USER_NOT_FOUND.exception();
+        }
+        // Evicted rather than updated from the snapshot above, which may predate another change
+        afterCommit(() -> userCache.evict(userId));
+        auditLog.record(AuditEventType.PASSWORD_CHANGE, userId, null);
         return true;
     }
 
     // ADMIN METHODS
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(DTOMapperFactory::createUserDTO)
-                .collect(Collectors.toList());
+        return userRepository.findAllUserDTOs();
     }
 
+    // Deliberately not @Transactional: a cache hit must not check out a connection
     @Override
     public UserDTO getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        CachedUser user = userCache.getById(id);
+        if (user == null) {
+            // With the cache off nothing outlives this call, so a replica may serve it
+            user = userCache.isEnabled()
+                    ? loadFromPrimary(id)
+                    : CachedUser.from(userRepository.findById(id).orElseThrow(ErrorCode.USER_NOT_FOUND::exception));
+        }
         return DTOMapperFactory.createUserDTO(user);
     }
 
+    // loginUser trusts the cache as much as the primary, so it is never filled from a replica
+    // that may not have seen a password change or deactivation yet
+    private CachedUser loadFromPrimary(Long id) {
+        long stamp = userCache.stamp();
+        return userCache.put(ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findById(id))
+                .orElseThrow(ErrorCode.USER_NOT_FOUND::exception), stamp);
+    }
+
+    // Admin view: read from the table rather than the cache, which holds no login activity
     @Override
-    public UserDTO updateUserRole(Long userId, UserRole newRole) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        user.setRole(newRole);
-        User updatedUser = userRepository.save(user);
-        return DTOMapperFactory.createUserDTO(updatedUser);
+    @Transactional(readOnly = true)
+    public UserDTO getUserDetails(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(ErrorCode.USER_NOT_FOUND::exception);
+        return loginActivityTracker.applyPending(DTOMapperFactory.createAdminUserDTO(user));
     }
 
     @Override
-    public boolean deactivateUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        user.setActive(false);
-        userRepository.save(user);
-        return true;
+    @Transactional
+    public UserDTO updateUserRole(Long userId, UserRole newRole, Long expectedVersion) {
+        UserDTO user = userRepository.findUserDTOById(userId)
+                .orElseThrow(ErrorCode.USER_NOT_FOUND::exception);
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw ErrorCode.VERSION_MISMATCH.exception();
+        }
+        UserRole oldRole = user.getRole();
+        if (oldRole != newRole) {
+            if (userRepository.updateUserRole(userId, newRole, expectedVersion) == 0) {
+                throw noRowMatched(userId, expectedVersion);
+            }
+            user.setRole(newRole);
+            user.setVersion(user.getVersion() + 1);
+            afterCommit(() -> {
+                userCache.evict(userId);
+                userStatsCounter.userChanged(oldRole, user.isActive(), newRole, user.isActive());
+                auditLog.record(AuditEventType.ROLE_CHANGE, userId, oldRole + " -> " + newRole);
+                userChangeFeed.publish(UserChangeType.ROLE_CHANGED, userId, user);
+            });
+        }
+        return user;
     }
 
     @Override
-    public boolean activateUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        user.setActive(true);
-        userRepository.save(user);
+    @Transactional
+    public boolean deactivateUser(Long userId, Long expectedVersion) {
+        return updateActive(userId, false, expectedVersion);
+    }
+
+    @Override
+    @Transactional
+    public boolean activateUser(Long userId, Long expectedVersion) {
+        return updateActive(userId, true, expectedVersion);
+    }
+
+    private boolean updateActive(Long userId, boolean active, Long expectedVersion) {
+        if (userRepository.updateActiveIfChanged(userId, active, expectedVersion) == 0) {
+            // Nothing changed: the user is already in that state, does not exist, or has moved past expectedVersion
+            long version = userRepository.findVersionById(userId)
+                    .orElseThrow(ErrorCode.USER_NOT_FOUND::exception);
+            if (expectedVersion != null && version != expectedVersion) {
+                throw ErrorCode.VERSION_MISMATCH.exception();
+            }
+            return true;
+        }
+        UserRole role = userStatsCounter.isSeeded() ? userRepository.findRoleById(userId).orElse(null) : null;
+        afterCommit(() -> {
+            userCache.evict(userId);
+            if (role != null) {
+                userStatsCounter.userChanged(role, !active, role, active);
+            }
+            auditLog.record(active ? AuditEventType.ACTIVATION : AuditEventType.DEACTIVATION, userId, null);
+            userChangeFeed.publish(active ? UserChangeType.ACTIVATED : UserChangeType.DEACTIVATED, userId, null);
+        });
         return true;
     }
 
     @Override
-    public boolean deleteUser(Long userId, Long currentUserId) {
+    @Transactional
+    public boolean deleteUser(Long userId, Long currentUserId, Long expectedVersion) {
         // Prevent self-deletion
         if (userId.equals(currentUserId)) {
-            throw new RuntimeException("Cannot delete your own account");
+            throw ErrorCode.SELF_DELETION.exception();
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        userRepository.delete(user);
+        // The counters and indexes need the old row; otherwise the DELETE alone is enough
+        UserDTO user = userStatsCounter.isSeeded() || availabilityIndex.isEnabled() || searchIndex.isEnabled()
+                ? userRepository.findUserDTOById(userId).orElse(null)
+                : null;
+        if (userRepository.deleteUserById(userId, expectedVersion) == 0) {
+            throw noRowMatched(userId, expectedVersion);
+        }
+        afterCommit(() -> {
+            userCache.evict(userId);
+            if (user != null) {
+                userStatsCounter.userRemoved(user.getRole(), user.isActive());
+                availabilityIndex.remove(user.getUsername(), user.getEmail());
+                searchIndex.remove(userId, user.getUsername());
+            }
+            auditLog.record(AuditEventType.DELETION, userId, null);
+            userChangeFeed.publish(UserChangeType.DELETED, userId, null);
+        });
         return true;
     }
 
+    // A version-conditional statement matched no rows: tell a stale version from a missing user
+    private AuthException noRowMatched(Long userId, Long expectedVersion) {
+        return expectedVersion != null && userRepository.existsById(userId)
+                ? ErrorCode.VERSION_MISMATCH.exception()
+                : ErrorCode.USER_NOT_FOUND.exception();
+    }
+
     @Override
-    public List<UserDTO> getUsersByRole(UserRole role) {
-        return userRepository.findByRole(role).stream()
-                .map(DTOMapperFactory::createUserDTO)
+    @Transactional
+    public BulkUserResultDTO bulkUpdateActive(BulkUserRequest request, boolean active, Long currentUserId) {
+        // Deactivating your own account would end the admin session midway
+        return applyBulk(active ? "activate" : "deactivate", request, active ? null : currentUserId,
+                user -> user.isActive() != active,
+                ids -> userRepository.updateActiveByIdIn(ids, active),
+                user -> {
+                    userStatsCounter.userChanged(user.getRole(), !active, user.getRole(), active);
+                    auditLog.record(active ? AuditEventType.ACTIVATION : AuditEventType.DEACTIVATION, user.getId(), "bulk");
+                    userChangeFeed.publish(active ? UserChangeType.ACTIVATED : UserChangeType.DEACTIVATED, user.getId(), null);
+                });
+    }
+
+    @Override
+    @Transactional
+    public BulkUserResultDTO bulkUpdateRole(BulkUserRequest request, UserRole newRole, Long currentUserId) {
+        return applyBulk("role:" + newRole, request, currentUserId,
+                user -> user.getRole() != newRole,
+                ids -> userRepository.updateRoleByIdIn(ids, newRole),
+                user -> {
+                    userStatsCounter.userChanged(user.getRole(), user.isActive(), newRole, user.isActive());
+                    auditLog.record(AuditEventType.ROLE_CHANGE, user.getId(), "bulk: " + user.getRole() + " -> " + newRole);
+                    userChangeFeed.publish(UserChangeType.ROLE_CHANGED, user.getId(),
+                            new UserDTO(user.getId(), user.getUsername(), user.getEmail(), newRole, user.isActive()));
+                });
+    }
+
+    @Override
+    @Transactional
+    public BulkUserResultDTO bulkDelete(BulkUserRequest request, Long currentUserId) {
+        return applyBulk("delete", request, currentUserId,
+                user -> true,
+                userRepository::deleteByIdIn,
+                user -> {
+                    userStatsCounter.userRemoved(user.getRole(), user.isActive());
+                    availabilityIndex.remove(user.getUsername(), user.getEmail());
+                    searchIndex.remove(user.getId(), user.getUsername());
+                    auditLog.record(AuditEventType.DELETION, user.getId(), "bulk");
+                    userChangeFeed.publish(UserChangeType.DELETED, user.getId(), null);
+                });
+    }
+
+    /**
+     * Resolves the targets with one projection query per chunk, decides a per-id outcome, then
+     * applies the change with one set-based statement per chunk. Runs inside the caller's transaction.
+     */
+    private BulkUserResultDTO applyBulk(String action, BulkUserRequest request, Long protectedUserId,
+                                        Predicate<UserDTO> needsChange,
+                                        ToIntFunction<List<Long>> statement,
+                                        Consumer<UserDTO> afterCommitAction) {
+        Map<Long, BulkUserOutcome> outcomes = new LinkedHashMap<>();
+        List<UserDTO> targets = new ArrayList<>();
+        if (request.hasUserIds()) {
+            for (List<Long> chunk : chunks(request.getUserIds().stream().distinct().toList())) {
+                chunk.forEach(id -> outcomes.put(id, BulkUserOutcome.NOT_FOUND));
+                targets.addAll(userRepository.findUserDTOsByIdIn(chunk));
+            }
+        } else {
+            targets = userRepository.findUserDTOsByFilter(request.getRole(), request.getActive(), Limit.of(BULK_MAX_USERS + 1));
+            if (targets.size() > BULK_MAX_USERS) {
+                throw ErrorCode.FILTER_TOO_BROAD.exception();
+            }
+        }
+
+        List<UserDTO> changed = new ArrayList<>();
+        for (UserDTO user : targets) {
+            BulkUserOutcome outcome;
+            if (user.getId().equals(protectedUserId)) {
+                outcome = BulkUserOutcome.SKIPPED_SELF;
+            } else if (!needsChange.test(user)) {
+                outcome = BulkUserOutcome.UNCHANGED;
+            } else {
+                outcome = BulkUserOutcome.APPLIED;
+                changed.add(user);
+            }
+            outcomes.put(user.getId(), outcome);
+        }
+
+        int applied = 0;
+        for (List<Long> chunk : chunks(changed.stream().map(UserDTO::getId).toList())) {
+            applied += statement.applyAsInt(chunk);
+        }
+
+        afterCommit(() -> changed.forEach(user -> {
+            userCache.evict(user.getId());
+            afterCommitAction.accept(user);
+        }));
+
+        BulkUserResultDTO result = new BulkUserResultDTO();
+        result.setAction(action);
+        result.setMatched(targets.size());
+        result.setApplied(applied);
+        result.setOutcomes(outcomes);
+        return result;
+    }
+
+    // Keeps IN lists well below driver and optimizer limits
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    @Override
+    public UserStatsDTO getUserStats() {
+        if (userStatsCounter.isEnabled()) {
+            return userStatsCounter.snapshot();
+        }
+        return UserStatsCounter.fromAggregates(userRepository.countByRoleAndActive());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDTO getUsersPage(UserPageRequest pageRequest) {
+        String sortKey = pageRequest.getSort();
+        Sort.Direction direction = Sort.Direction.fromString(pageRequest.getDirection());
+        Sort sort = "id".equals(sortKey)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortKey).and(Sort.by(direction, "id"));
+        ScrollPosition position = KeysetCursorCodec.decode(pageRequest.getCursor(), sortKey, pageRequest.getDirection());
+
+        Window<User> window = userRepository.findBy(
+                UserSpecifications.withFilters(pageRequest.getRole(), pageRequest.getActive(), pageRequest.getLastLoginBefore()),
+                query -> query.sortBy(sort).limit(pageRequest.getSize()).scroll(position));
+
+        List<UserDTO> users = window.stream()
+                .map(user -> loginActivityTracker.applyPending(DTOMapperFactory.createAdminUserDTO(user)))
                 .collect(Collectors.toList());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? KeysetCursorCodec.encode(sortKey, pageRequest.getDirection(),
+                        (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        return new UserPageDTO(users, nextCursor, nextCursor != null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserSearchPageDTO searchUsers(UserSearchRequest searchRequest) {
+        if (!searchIndex.isEnabled()) {
+            throw ErrorCode.SEARCH_DISABLED.exception();
+        }
+        String query = UserCache.normalize(searchRequest.getQ());
+        int offset = searchRequest.getPage() * searchRequest.getSize();
+        // One id beyond the page tells whether another page follows
+        List<Long> ids = searchIndex.search(query, offset, searchRequest.getSize() + 1);
+        boolean hasMore = ids.size() > searchRequest.getSize();
+        List<Long> pageIds = hasMore ? ids.subList(0, searchRequest.getSize()) : ids;
+
+        // One IN query for the page, put back into rank order; rows that no longer match are dropped
+        Map<Long, UserDTO> rows = pageIds.isEmpty() ? Map.of() : userRepository.findUserDTOsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(UserDTO::getId, user -> user));
+        List<UserDTO> users = pageIds.stream()
+                .map(rows::get)
+                .filter(user -> user != null && (UserCache.normalize(user.getUsername()).contains(query)
+                        || UserCache.normalize(user.getEmail()).contains(query)))
+                .toList();
+        return new UserSearchPageDTO(users, hasMore ? searchRequest.getPage() + 1 : null, hasMore);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public long exportUsers(UserExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        ObjectWriter jsonWriter = objectMapper.writerFor(UserDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        if (format == UserExportFormat.CSV) {
+            writer.write("id,username,email,role,active\n");
+        }
+
+        long rows = 0;
+        try (Stream<UserDTO> users = userRepository.streamAllUserDTOsOrderById()) {
+            Iterator<UserDTO> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserDTO user = iterator.next();
+                if (format == UserExportFormat.CSV) {
+                    writer.write(user.getId().toString());
+                    writer.write(',');
+                    writer.write(csvField(user.getUsername()));
+                    writer.write(',');
+                    writer.write(csvField(user.getEmail()));
+                    writer.write(',');
+                    writer.write(user.getRole().name());
+                    writer.write(',');
+                    writer.write(Boolean.toString(user.isActive()));
+                } else {
+                    jsonWriter.writeValue(writer, user);
+                }
+                writer.write('\n');
+
+                // Projected rows are never managed, so nothing accumulates in the persistence context
+                if (++rows % EXPORT_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDTO> getUsersByRole(UserRole role) {
+        return userRepository.findUserDTOsByRole(role);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> getActiveUsers(boolean active) {
-        return userRepository.findByActive(active).stream()
-                .map(DTOMapperFactory::createUserDTO)
-                .collect(Collectors.toList());
+        return userRepository.findUserDTOsByActive(active);
     }
 
     @Override
     public boolean resetPassword(PasswordResetRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + request.getEmail()));
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        String newHash = passwordHashingService.encode(request.getNewPassword());
+        // Resolved to the id so the whole cache entry goes, whichever of its login keys are still cached
+        Long userId = ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findIdByEmail(request.getEmail()))
+                .orElseThrow(ErrorCode.USER_NOT_FOUND::exception);
+        if (userRepository.updatePassword(userId, request.getEmail(), newHash) == 0) {
+            throw ErrorCode.USER_NOT_FOUND.exception();
+        }
+        afterCommit(() -> userCache.evict(userId));
+        auditLog.record(AuditEventType.PASSWORD_RESET, userId, request.getEmail(), null);
         return true;
     }
 
+    @Override
+    public AvailabilityDTO checkAvailability(String username, String email) {
+        // Always an indexed lookup: the Bloom filter only sees this instance's writes, so its
+        // negatives could report a name that another instance or an import just took as free
+        AvailabilityDTO availability = new AvailabilityDTO();
+        if (username != null && !username.isBlank()) {
+            availability.setUsername(username);
+            availability.setUsernameAvailable(!userRepository.existsByUsername(username));
+        }
+        if (email != null && !email.isBlank()) {
+            availability.setEmail(email);
+            availability.setEmailAvailable(!userRepository.existsByEmail(email));
+        }
+        return availability;
+    }
+
+    // Cache and counter updates must only become visible once the change is committed
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     // Removed: convertToDTO method replaced by DTOMapperFactory.createUserDTO()
     // This demonstrates the Factory Pattern - centralized object creation logic
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.trainreservation.auth.service;
+
+import com.trainreservation.auth.datasource.ReadWriteRoutingDataSource;
+import com.trainreservation.auth.dto.UserStatsDTO;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.repository.UserRepository;
+import com.trainreservation.auth.repository.UserRoleStatusCount;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory snapshot of user counts per (role, active) bucket.
+ *
+ * Loaded from the GROUP BY aggregate on first use and then kept up to date by the
+ * UserService mutations, so the admin dashboard can be served without touching
+ * the users table. Disabled unless auth.stats.in-memory-counters=true.
+ *
+ * A write that commits while the aggregate runs may be counted twice or not at all, and
+ * writes made by other instances are never seen here, so the buckets are reloaded from the
+ * primary every auth.stats.refresh-interval. Any drift lasts at most that long.
+ */
+@Slf4j
+@Component
+public class UserStatsCounter {
+
+    private static final UserRole[] ROLES = UserRole.values();
+
+    private final boolean enabled;
+    private final UserRepository userRepository;
+    private final ScheduledExecutorService scheduler;
+    // Replaced as a whole by refresh(); null until the first load
+    private volatile AtomicLongArray buckets;
+
+    public UserStatsCounter(
+            UserRepository userRepository,
+            @Value("${auth.stats.in-memory-counters:false}") boolean enabled,
+            @Value("${auth.stats.refresh-interval:1m}") Duration refreshInterval) {
+        this.enabled = enabled;
+        this.userRepository = userRepository;
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "user-stats-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = refreshInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSeeded() {
+        return buckets != null;
+    }
+
+    /**
+     * Reloads every bucket from the primary; a lagging replica would undo recent changes.
+     */
+    public synchronized void refresh() {
+        List<UserRoleStatusCount> counts = ReadWriteRoutingDataSource.onPrimary(userRepository::countByRoleAndActive);
+        AtomicLongArray fresh = new AtomicLongArray(ROLES.length * 2);
+        for (UserRoleStatusCount count : counts) {
+            fresh.addAndGet(index(count.getRole(), Boolean.TRUE.equals(count.getActive())), count.getTotal());
+        }
+        buckets = fresh;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Keep counting on the current buckets; the next refresh tries again
+            log.warn("Could not refresh user statistics", e);
+        }
+    }
+
+    public void userAdded(UserRole role, boolean active) {
+        AtomicLongArray current = buckets;
+        if (current != null) {
+            current.incrementAndGet(index(role, active));
+        }
+    }
+
+    public void userRemoved(UserRole role, boolean active) {
+        AtomicLongArray current = buckets;
+        if (current != null) {
+            current.decrementAndGet(index(role, active));
+        }
+    }
+
+    public void userChanged(UserRole oldRole, boolean oldActive, UserRole newRole, boolean newActive) {
+        if (oldRole == newRole && oldActive == newActive) {
+            return;
+        }
+        userRemoved(oldRole, oldActive);
+        userAdded(newRole, newActive);
+    }
+
+    public UserStatsDTO snapshot() {
+        AtomicLongArray current = buckets;
+        if (current == null) {
+            refresh();
+            current = buckets;
+        }
+        long[][] counts = new long[ROLES.length][2];
+        for (UserRole role : ROLES) {
+            counts[role.ordinal()][0] = current.get(index(role, false));
+            counts[role.ordinal()][1] = current.get(index(role, true));
+        }
+        return toStatsDTO(counts);
+    }
+
+    public static UserStatsDTO fromAggregates(List<UserRoleStatusCount> aggregates) {
+        long[][] counts = new long[ROLES.length][2];
+        for (UserRoleStatusCount count : aggregates) {
+            counts[count.getRole().ordinal()][Boolean.TRUE.equals(count.getActive()) ? 1 : 0] += count.getTotal();
+        }
+        return toStatsDTO(counts);
+    }
+
+    private static UserStatsDTO toStatsDTO(long[][] counts) {
+        UserStatsDTO stats = new UserStatsDTO();
+        long active = 0;
+        long inactive = 0;
+        for (UserRole role : ROLES) {
+            inactive += counts[role.ordinal()][0];
+            active += counts[role.ordinal()][1];
+        }
+        stats.setActiveUsers(active);
+        stats.setInactiveUsers(inactive);
+        stats.setTotalUsers(active + inactive);
+        stats.setAdminCount(total(counts, UserRole.ADMIN));
+        stats.setStaffCount(total(counts, UserRole.STAFF));
+        stats.setPassengerCount(total(counts, UserRole.PASSENGER));
+        return stats;
+    }
+
+    private static long total(long[][] counts, UserRole role) {
+        return counts[role.ordinal()][0] + counts[role.ordinal()][1];
+    }
+
+    private static int index(UserRole role, boolean active) {
+        return role.ordinal() * 2 + (active ? 1 : 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
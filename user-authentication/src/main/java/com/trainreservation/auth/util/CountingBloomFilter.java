@@ -0,0 +1,123 @@
+package com.trainreservation.auth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counting Bloom filter over strings, with 4-bit counters packed sixteen per long.
+ *
+ * mightContain() never returns false for a key that was added and not removed, so a negative
+ * answer is authoritative. Counters saturate at 15 and are then never decremented, which can
+ * only leave extra false positives behind, never false negatives.
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xFL;
+
+    private final AtomicLongArray words;
+    private final long counterCount;
+    private final int hashCount;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        // Standard sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.words = new AtomicLongArray(words);
+        this.counterCount = (long) words * COUNTERS_PER_WORD;
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / n * Math.log(2)));
+    }
+
+    public void add(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            increment(index(h1, h2, i));
+        }
+    }
+
+    public void remove(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            decrement(index(h1, h2, i));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = index(h1, h2, i);
+            if (counter(words.get((int) (index / COUNTERS_PER_WORD)), index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // Kirsch-Mitzenmacher: k indexes from two independent hashes
+    private long index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        return (combined & Integer.MAX_VALUE) % counterCount;
+    }
+
+    private void increment(long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        long current;
+        do {
+            current = words.get(word);
+            if (counter(current, index) == COUNTER_MASK) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current + (1L << shift(index))));
+    }
+
+    private void decrement(long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        long current;
+        do {
+            current = words.get(word);
+            long counter = counter(current, index);
+            // Saturated counters have lost their exact count; zero means a stray remove
+            if (counter == COUNTER_MASK || counter == 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current - (1L << shift(index))));
+    }
+
+    private static long counter(long word, long index) {
+        return (word >>> shift(index)) & COUNTER_MASK;
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * 4;
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 fmix64 avalanche
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -1,7 +1,9 @@
 package com.trainreservation.auth.util;
 
+import com.trainreservation.auth.cache.CachedUser;
 import com.trainreservation.auth.dto.UserDTO;
 import com.trainreservation.auth.entity.User;
+import com.trainreservation.auth.security.AuthPrincipal;
 
 /**
  * Factory Pattern Implementation for DTO Mapping
@@ -38,26 +40,69 @@ public class DTOMapperFactory {
         dto.setEmail(user.getEmail());
         dto.setRole(user.getRole());
         dto.setActive(user.isActive());
+        dto.setVersion(user.getVersion());
         // Note: Password is NOT included in DTO for security
         return dto;
     }
 
+    /**
+     * Creates a standard UserDTO from a cached user snapshot
+     * Same fields as createUserDTO(User), used when the lookup was served by UserCache
+     * 
+     * @param user The cached user to convert
+     * @return UserDTO with all standard fields populated
+     */
+    public static UserDTO createUserDTO(CachedUser user) {
+        if (user == null) {
+            return null;
+        }
+
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setRole(user.getRole());
+        dto.setActive(user.isActive());
+        dto.setVersion(user.getVersion());
+        return dto;
+    }
+
+    /**
+     * Creates a UserDTO from the authenticated principal (session or signed token claims)
+     * Only id, username and role are known; accounts are active when they authenticate
+     * 
+     * @param principal The authenticated principal to convert
+     * @return UserDTO with id, username, role and active populated
+     */
+    public static UserDTO createUserDTO(AuthPrincipal principal) {
+        if (principal == null) {
+            return null;
+        }
+
+        UserDTO dto = new UserDTO();
+        dto.setId(principal.getId());
+        dto.setUsername(principal.getUsername());
+        dto.setRole(principal.getRole());
+        dto.setActive(true);
+        return dto;
+    }
+
     /**
      * Creates a detailed UserDTO with additional metadata
-     * Future enhancement: Can include timestamps, last login, etc.
+     * Adds the last login time and login count on top of the standard fields
      * 
      * @param user The User entity to convert
-     * @return UserDTO with detailed information (currently same as standard)
+     * @return UserDTO with standard fields plus login activity
      */
     public static UserDTO createDetailedUserDTO(User user) {
         if (user == null) {
             return null;
         }
 
-        // Currently returns standard DTO
-        // Can be extended to include createdAt, updatedAt, etc.
         UserDTO dto = createUserDTO(user);
-        
+        dto.setLastLoginAt(user.getLastLoginAt());
+        dto.setLoginCount(user.getLoginCount());
+
         // Future enhancements can be added here:
         // dto.setCreatedAt(user.getCreatedAt());
         // dto.setUpdatedAt(user.getUpdatedAt());
@@ -0,0 +1,70 @@
+package com.trainreservation.auth.util;
+
+import com.trainreservation.auth.exception.ErrorCode;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes keyset (seek) positions of the admin user listing into opaque cursors.
+ *
+ * A cursor carries the sort key, the direction and the last row's sort value plus id,
+ * so the next page is fetched with a range predicate instead of an OFFSET scan.
+ * Format before Base64url encoding: sort:direction:id[:value]
+ */
+public class KeysetCursorCodec {
+
+    private static final String ID = "id";
+
+    private KeysetCursorCodec() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    public static String encode(String sort, String direction, KeysetScrollPosition position) {
+        Map<String, ?> keys = position.getKeys();
+        StringBuilder payload = new StringBuilder()
+                .append(sort).append(':')
+                .append(direction.toLowerCase()).append(':')
+                .append(keys.get(ID));
+        if (!ID.equals(sort)) {
+            payload.append(':').append(keys.get(sort));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScrollPosition decode(String cursor, String sort, String direction) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+        } catch (IllegalArgumentException e) {
+            throw ErrorCode.INVALID_CURSOR.exception();
+        }
+        if (parts.length < 3 || !parts[0].equals(sort) || !parts[1].equalsIgnoreCase(direction)) {
+            throw ErrorCode.INVALID_CURSOR.exception();
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            if (!ID.equals(sort)) {
+                if (parts.length < 4) {
+                    throw ErrorCode.INVALID_CURSOR.exception();
+                }
+                keys.put(sort, "createdAt".equals(sort) ? LocalDateTime.parse(parts[3]) : parts[3]);
+            }
+            keys.put(ID, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw ErrorCode.INVALID_CURSOR.exception();
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -1,11 +1,37 @@
 package com.trainreservation.auth.util;
 
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Singleton holder for the application's PasswordEncoder.
+ *
+ * Hashes are stored in DelegatingPasswordEncoder {id} format ({bcrypt}$2a$...), while legacy
+ * unprefixed BCrypt hashes still verify. The BCrypt cost is either pinned or calibrated once at
+ * startup so that a single hash takes roughly a target time on the current hardware. Hashes made
+ * with an older algorithm or below the rehash floor report needsRehash() and can be rehashed on
+ * login. The floor is the pinned cost, or the lowest cost calibration may pick: instances that
+ * calibrate differently then leave each other's hashes alone instead of rehashing them back and
+ * forth.
+ */
 public class PasswordEncoderSingleton {
 
+    public static final String BCRYPT_ID = "bcrypt";
+    public static final int DEFAULT_STRENGTH = 10;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-Passw0rd";
+    private static final int CALIBRATION_ROUNDS = 3;
+    // {bcrypt}$2a$12$<53 chars of salt and hash>; the group is the cost
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\{" + BCRYPT_ID + "}\\$2[aby]?\\$(\\d\\d)\\$.{53}");
+
     private static PasswordEncoder instance;
+    private static int strength = DEFAULT_STRENGTH;
+    private static int rehashBelow = DEFAULT_STRENGTH;
 
     private PasswordEncoderSingleton() {
         // Private constructor to prevent instantiation
@@ -13,8 +39,82 @@ public class PasswordEncoderSingleton {
 
     public static synchronized PasswordEncoder getInstance() {
         if (instance == null) {
-            instance = new BCryptPasswordEncoder();
+            instance = createEncoder(strength);
+        }
+        return instance;
+    }
+
+    public static synchronized int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Replaces the singleton with an encoder using a fixed BCrypt cost.
+     */
+    public static synchronized PasswordEncoder useStrength(int bcryptStrength) {
+        return install(bcryptStrength, bcryptStrength);
+    }
+
+    /**
+     * Measures BCrypt on this host and installs the highest cost in [minStrength, maxStrength]
+     * whose hash time stays within targetTime. Each cost step doubles the work, so the search
+     * stops as soon as the next step would overshoot the target.
+     */
+    public static synchronized PasswordEncoder calibrate(Duration targetTime, int minStrength, int maxStrength) {
+        long targetNanos = targetTime.toNanos();
+
+        // Warm up the JIT so the first measurement is not dominated by interpretation
+        new BCryptPasswordEncoder(4).encode(CALIBRATION_PASSWORD);
+
+        int cost = minStrength;
+        long elapsed = measure(cost);
+        while (cost < maxStrength && elapsed * 2 <= targetNanos) {
+            cost++;
+            elapsed = measure(cost);
         }
+        return install(cost, minStrength);
+    }
+
+    public static synchronized int getRehashBelow() {
+        return rehashBelow;
+    }
+
+    /**
+     * True when the stored hash is not a {bcrypt} hash, or has a cost below the rehash floor.
+     * Any cost at or above the floor is left alone, even below the installed strength, so a
+     * calibrated cost above the floor does not rehash every login.
+     */
+    public static boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return true;
+        }
+        Matcher hash = BCRYPT_HASH.matcher(encodedPassword);
+        return !hash.matches() || Integer.parseInt(hash.group(1)) < getRehashBelow();
+    }
+
+    private static PasswordEncoder install(int bcryptStrength, int floor) {
+        strength = bcryptStrength;
+        rehashBelow = floor;
+        instance = createEncoder(bcryptStrength);
         return instance;
     }
-}
\ No newline at end of file
+
+    private static long measure(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static PasswordEncoder createEncoder(int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        // Hashes written before the {id} prefix was introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+}
@@ -0,0 +1,40 @@
+package com.trainreservation.auth.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time".
+ *
+ * Each permit pushes that time forward by one emission interval (period / permits); a request
+ * is refused while the time lies more than the burst allowance ahead of now. This is exactly a
+ * bucket of the given capacity refilled at permits/period, updated with a single CAS.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long emissionIntervalNanos, long burstToleranceNanos, long nowNanos) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.burstToleranceNanos = burstToleranceNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one permit. Returns 0 when granted, otherwise the nanos until one becomes available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long arrival = Math.max(current, nowNanos);
+            long wait = arrival - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
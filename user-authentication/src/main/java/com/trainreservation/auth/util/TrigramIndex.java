@@ -0,0 +1,229 @@
+package com.trainreservation.auth.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory trigram index over (id, username, email) for ranked fragment search.
+ *
+ * Every user gets a slot; each trigram maps to an ascending list of slots. Usernames are indexed
+ * with a start and an end marker, emails with a start marker and up to the '@' (domains are
+ * shared by too many users to be worth indexing). The markers turn prefix and exact matching
+ * into ordinary trigram lookups, so results come in three tiers: exact match, prefix match,
+ * substring match, each in index order (id order for the startup load). Candidates are the
+ * intersection of the query's posting lists, verified against the stored strings, and each tier
+ * stops scanning once the requested window is full.
+ *
+ * Removal only clears the slot; its postings stay behind as tombstones that verification skips,
+ * until the index is rebuilt. Strings are expected to be normalized by the caller. Thread-safe:
+ * searches share a read lock, changes take the write lock.
+ */
+public class TrigramIndex {
+
+    private static final char START = '\u0002';
+    private static final char END = '\u0003';
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private long[] ids = new long[1024];
+    private String[] usernames = new String[1024];
+    private String[] emails = new String[1024];
+    private int slotCount;
+    private int liveCount;
+
+    public void add(long id, String username, String email) {
+        long[] keys = trigramsOf(username, email);
+        lock.writeLock().lock();
+        try {
+            int slot = slotCount++;
+            if (slot == ids.length) {
+                int capacity = ids.length + (ids.length >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                usernames = Arrays.copyOf(usernames, capacity);
+                emails = Arrays.copyOf(emails, capacity);
+            }
+            ids[slot] = id;
+            usernames[slot] = username;
+            emails[slot] = email;
+            for (long key : keys) {
+                postings.computeIfAbsent(key, k -> new PostingList()).add(slot);
+            }
+            liveCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry of the user indexed under this username.
+     */
+    public void remove(long id, String username) {
+        long[] keys = trigrams(START + username + END);
+        lock.writeLock().lock();
+        try {
+            forEachCandidate(keys, slot -> {
+                if (ids[slot] == id && username.equals(usernames[slot])) {
+                    usernames[slot] = null;
+                    emails[slot] = null;
+                    liveCount--;
+                }
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the users whose username or email matches the query, best first. Returns at most
+     * limit ids after skipping offset; ask for one more than a page to learn whether another follows.
+     */
+    public List<Long> search(String query, int offset, int limit) {
+        int wanted = offset + limit;
+        String local = query.indexOf('@') >= 0 ? query.substring(0, query.indexOf('@') + 1) : query;
+        List<Long> matches = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            // Exact: the whole username between its markers, or the email's local part up to '@'
+            long[] exactKeys = local.equals(query) ? trigrams(START + query + END) : trigrams(START + local);
+            collect(exactKeys, slot -> query.equals(usernames[slot]) || query.equals(emails[slot]), matches, seen, wanted);
+            collect(trigrams(START + local),
+                    slot -> usernames[slot] != null && (usernames[slot].startsWith(query) || emails[slot].startsWith(query)),
+                    matches, seen, wanted);
+            collect(trigrams(local),
+                    slot -> usernames[slot] != null && (usernames[slot].contains(query) || emails[slot].contains(query)),
+                    matches, seen, wanted);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return offset >= matches.size() ? List.of() : matches.subList(offset, Math.min(wanted, matches.size()));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough retained heap size: posting arrays, slot arrays and the stored strings.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) ids.length * (8 + 4 + 4);
+            for (PostingList list : postings.values()) {
+                // HashMap node + boxed key + list object + array
+                bytes += 32 + 16 + 16 + 16 + 4L * list.slots.length;
+            }
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (usernames[slot] != null) {
+                    // String object + byte[] header per string (Latin-1 compact strings)
+                    bytes += 2 * 40 + usernames[slot].length() + emails[slot].length();
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(long[] keys, IntPredicate filter, List<Long> matches, Set<Long> seen, int wanted) {
+        if (keys.length == 0 || matches.size() >= wanted) {
+            return;
+        }
+        forEachCandidate(keys, slot -> {
+            if (filter.test(slot) && seen.add(ids[slot])) {
+                matches.add(ids[slot]);
+            }
+            return matches.size() < wanted;
+        });
+    }
+
+    // Visits slots present in every posting list in ascending order, driven by the shortest
+    // list, until the visitor returns false. Lazy, so a full page ends the scan early.
+    private void forEachCandidate(long[] keys, IntPredicate visitor) {
+        PostingList[] lists = new PostingList[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        PostingList driver = lists[0];
+        outer:
+        for (int i = 0; i < driver.size; i++) {
+            int slot = driver.slots[i];
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(slot)) {
+                    continue outer;
+                }
+            }
+            if (!visitor.test(slot)) {
+                return;
+            }
+        }
+    }
+
+    private static long[] trigramsOf(String username, String email) {
+        int at = email.indexOf('@');
+        String local = at >= 0 ? email.substring(0, at + 1) : email + '@';
+        long[] usernameKeys = trigrams(START + username + END);
+        long[] emailKeys = trigrams(START + local);
+        long[] keys = Arrays.copyOf(usernameKeys, usernameKeys.length + emailKeys.length);
+        System.arraycopy(emailKeys, 0, keys, usernameKeys.length, emailKeys.length);
+        Arrays.sort(keys);
+        // A slot goes into each posting list once, even when username and email share a trigram
+        int unique = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[unique++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, unique);
+    }
+
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] keys = new long[text.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return keys;
+    }
+
+    // Slots only ever grow, so appending keeps each list sorted for binary search
+    private static final class PostingList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.trainreservation.auth.util;
+
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.exception.ErrorCode;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Entity tags for user representations, built from row versions so that a conditional GET is
+ * answered without serializing the body.
+ *
+ * A single user is tagged "id-version", plus "-loginCount" when the representation carries
+ * login activity, which changes without bumping the version. A list is tagged with its size
+ * and a hash over the same values of every row in order.
+ */
+public final class UserETags {
+
+    private UserETags() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    public static String of(UserDTO user) {
+        StringBuilder tag = new StringBuilder().append('"').append(user.getId()).append('-').append(user.getVersion());
+        if (user.getLoginCount() != null) {
+            tag.append('-').append(user.getLoginCount());
+        }
+        return tag.append('"').toString();
+    }
+
+    // extra: anything else in the response that is not derived from the rows, e.g. a page cursor
+    public static String of(List<UserDTO> users, Object... extra) {
+        long hash = 17;
+        for (UserDTO user : users) {
+            hash = 31 * hash + mix(user.getId());
+            hash = 31 * hash + mix(Objects.requireNonNull(user.getVersion(), "version not selected"));
+            hash = 31 * hash + mix(user.getLoginCount() == null ? -1 : user.getLoginCount());
+        }
+        for (Object value : extra) {
+            hash = 31 * hash + mix(Objects.hashCode(value));
+        }
+        return "\"" + users.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * The version an If-Match header asks for. Null when there is no header or it is "*", which
+     * leaves the change unconditional. A tag that was not issued for this user, or a weak one,
+     * can never match and fails the precondition straight away.
+     */
+    public static Long expectedVersion(Long userId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = userId + "-";
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.length() < 2 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+                continue;
+            }
+            value = value.substring(1, value.length() - 1);
+            if (!value.startsWith(prefix)) {
+                continue;
+            }
+            int end = value.indexOf('-', prefix.length());
+            try {
+                return Long.parseLong(value.substring(prefix.length(), end < 0 ? value.length() : end));
+            } catch (NumberFormatException e) {
+                // Not one of ours; try the next tag
+            }
+        }
+        throw ErrorCode.VERSION_MISMATCH.exception();
+    }
+
+    // SplitMix64 finalizer, so nearby ids and versions spread over the whole hash
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,17 @@
+-- The users table as ddl-auto=update created it from the User entity before migrations were
+-- introduced. Such databases already have it and are baselined at this version instead; every
+-- later change to the schema is a migration of its own.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    active BIT NOT NULL,
+    created_at DATETIME(6),
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    role ENUM('ADMIN', 'PASSENGER', 'STAFF') NOT NULL,
+    updated_at DATETIME(6),
+    username VARCHAR(50) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE=InnoDB;
@@ -0,0 +1,5 @@
+-- Backs the role/active filters of the admin listing, export and statistics queries
+
+CREATE INDEX idx_users_role ON users (role);
+CREATE INDEX idx_users_active ON users (active);
+CREATE INDEX idx_users_role_active ON users (role, active);
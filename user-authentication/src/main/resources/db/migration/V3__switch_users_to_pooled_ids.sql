@@ -0,0 +1,11 @@
+-- User ids come from Hibernate's pooled id table (MySQL has no sequences) instead of
+-- AUTO_INCREMENT, so inserts can be batched. The table holds one row with the next id, which
+-- starts past any row inserted under the old AUTO_INCREMENT ids.
+
+ALTER TABLE users MODIFY id BIGINT NOT NULL;
+
+CREATE TABLE users_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO users_seq SELECT COALESCE(MAX(id), 0) + 1 FROM users;
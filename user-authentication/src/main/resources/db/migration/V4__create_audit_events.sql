@@ -0,0 +1,16 @@
+-- Written in batches by AuditLog; read newest first per user or per event type
+
+CREATE TABLE audit_events (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    type ENUM('ACTIVATION', 'DEACTIVATION', 'DELETION', 'LOGIN_FAILURE', 'LOGIN_SUCCESS',
+              'PASSWORD_CHANGE', 'PASSWORD_RESET', 'ROLE_CHANGE') NOT NULL,
+    user_id BIGINT,
+    actor_id BIGINT,
+    identifier VARCHAR(255),
+    detail VARCHAR(255),
+    occurred_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_audit_events_user ON audit_events (user_id, id);
+CREATE INDEX idx_audit_events_type ON audit_events (type, id);
@@ -0,0 +1,4 @@
+-- Filled in behind by LoginActivityTracker; existing users start with no recorded login
+
+ALTER TABLE users ADD COLUMN last_login_at DATETIME(6);
+ALTER TABLE users ADD COLUMN login_count BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,3 @@
+-- Optimistic lock and ETag source for User; existing rows start at version 0
+
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
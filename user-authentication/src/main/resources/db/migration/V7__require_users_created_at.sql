@@ -0,0 +1,7 @@
+-- The admin listing pages through users by created_at with a keyset predicate, which never
+-- matches a NULL, so such rows could drop out of the listing. Rows that predate the column being
+-- filled take their last update time, or failing that the time of this migration.
+
+UPDATE users SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP(6)) WHERE created_at IS NULL;
+
+ALTER TABLE users MODIFY created_at DATETIME(6) NOT NULL;
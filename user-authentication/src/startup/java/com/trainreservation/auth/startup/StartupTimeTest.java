@@ -0,0 +1,193 @@
+package com.trainreservation.auth.startup;
+
+import com.trainreservation.auth.UserAuthenticationApplication;
+import org.h2.Driver;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request of the packaged service with and without Spring AOT and a CDS archive.
+ *
+ * Each run starts a fresh JVM from the extracted jar (mvn -Pfast-startup package) and measures
+ * from process start until GET /actuator/health answers 200. The service runs against its own
+ * in-memory H2 database in MySQL mode, so Flyway migrations and schema validation are part of
+ * every start; the H2 driver is appended to the classpath, which is why the CDS archives are
+ * trained here with the same classpath instead of reusing a production archive.
+ *
+ * Modes: jit (plain), aot (-Dspring.aot.enabled=true), cds (-XX:SharedArchiveFile) and aot-cds.
+ * The JDK's own default CDS archive is in use in every mode; the cds modes add the application.
+ * Each CDS mode first does a training run that refreshes the context and exits
+ * (-Dspring.context.exit=onRefresh), dumping the loaded classes with -XX:ArchiveClassesAtExit.
+ *
+ * Settings, passed as -Dname=value (mvn -Pfast-startup verify -Dstartup.args="..."):
+ *   startup.jar      extracted application jar
+ *   startup.runs     measured starts per mode (default 5)
+ *   startup.timeout  give up on a start after this long (default 2m)
+ *   startup.output   directory for startup-times.csv, the archives and the service logs
+ */
+public final class StartupTimeTest {
+
+    enum Mode {
+        JIT("jit", false, false),
+        AOT("aot", true, false),
+        CDS("cds", false, true),
+        AOT_CDS("aot-cds", true, true);
+
+        private final String label;
+        private final boolean aot;
+        private final boolean cds;
+
+        Mode(String label, boolean aot, boolean cds) {
+            this.label = label;
+            this.aot = aot;
+            this.cds = cds;
+        }
+    }
+
+    private final Path jar;
+    private final Path output;
+    private final Duration timeout;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupTimeTest(Path jar, Path output, Duration timeout) {
+        this.jar = jar;
+        this.output = output;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar", "target/fast-startup/user-authentication-0.0.1-SNAPSHOT.jar"));
+        int runs = Integer.getInteger("startup.runs", 5);
+        Duration timeout = Duration.parse("PT" + System.getProperty("startup.timeout", "2m").toUpperCase(Locale.ROOT));
+        Path output = Path.of(System.getProperty("startup.output", "target/startup"));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found; build it with mvn -Pfast-startup package");
+        }
+        Files.createDirectories(output);
+        StartupTimeTest test = new StartupTimeTest(jar, output, timeout);
+
+        List<String> rows = new ArrayList<>(List.of("mode,run,millis"));
+        List<String> summary = new ArrayList<>();
+        for (Mode mode : Mode.values()) {
+            if (mode.cds) {
+                test.train(mode);
+            }
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = test.timeToFirstRequest(mode, run);
+                rows.add(mode.label + "," + run + "," + millis[run]);
+            }
+            Arrays.sort(millis);
+            summary.add(String.format("%-8s min %6d ms   median %6d ms   max %6d ms",
+                    mode.label, millis[0], millis[runs / 2], millis[runs - 1]));
+        }
+        Files.write(output.resolve("startup-times.csv"), rows);
+        PrintStream out = System.out;
+        out.printf("Time to first request over %d starts per mode (%s)%n", runs, output.resolve("startup-times.csv"));
+        summary.forEach(out::println);
+    }
+
+    private void train(Mode mode) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive(mode));
+        Process process = start(mode, "train", List.of(
+                "-XX:ArchiveClassesAtExit=" + archive(mode),
+                "-Dspring.context.exit=onRefresh"));
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS) || process.exitValue() != 0 || !Files.exists(archive(mode))) {
+            process.destroyForcibly();
+            throw new IllegalStateException("CDS training run for " + mode.label + " failed, see " + log(mode, "train"));
+        }
+    }
+
+    private long timeToFirstRequest(Mode mode, int run) throws IOException, InterruptedException {
+        int port = freePort();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .GET().build();
+        List<String> jvmArgs = new ArrayList<>(List.of("-Dserver.port=" + port));
+        if (mode.cds) {
+            // Fail instead of silently running without the archive when it does not match
+            jvmArgs.addAll(List.of("-XX:SharedArchiveFile=" + archive(mode), "-Xshare:on"));
+        }
+        long startedAt = System.nanoTime();
+        Process process = start(mode, String.valueOf(run), jvmArgs);
+        try {
+            long deadline = startedAt + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.label + " exited with " + process.exitValue() + ", see " + log(mode, String.valueOf(run)));
+                }
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(mode.label + " did not answer within " + timeout + ", see " + log(mode, String.valueOf(run)));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private Process start(Mode mode, String run, List<String> jvmArgs) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-Dspring.aot.enabled=" + mode.aot);
+        command.add("-cp");
+        // The extracted jar's manifest puts lib/ on the classpath
+        command.add(jar + File.pathSeparator + h2Jar());
+        command.add(UserAuthenticationApplication.class.getName());
+        // Each JVM gets a fresh database, migrated on startup
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--logging.level.com.trainreservation.auth=WARN");
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log(mode, run).toFile())
+                .start();
+    }
+
+    private Path archive(Mode mode) {
+        return output.resolve(mode.label + ".jsa").toAbsolutePath();
+    }
+
+    private Path log(Mode mode, String run) {
+        return output.resolve(mode.label + "-" + run + ".log");
+    }
+
+    private static String h2Jar() {
+        try {
+            return Path.of(Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot locate the H2 driver jar", e);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.trainreservation.auth;
+
+import com.trainreservation.auth.dto.LoginRequest;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the application on a database that the pre-migration release created with
+ * ddl-auto=update, holding rows with AUTO_INCREMENT ids. Flyway has to baseline it and bring it up
+ * to the schema ddl-auto=validate expects without losing or renumbering those rows.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        // As in the main application.properties, which the test resources replace
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1"
+})
+class LegacySchemaUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void legacyDatabase(DynamicPropertyRegistry registry) {
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        // What Hibernate generated for the User entity before migrations were introduced
+        legacy.execute("""
+                CREATE TABLE users (
+                    id BIGINT NOT NULL AUTO_INCREMENT,
+                    active BIT NOT NULL,
+                    created_at DATETIME(6),
+                    email VARCHAR(255) NOT NULL,
+                    password VARCHAR(255),
+                    role ENUM('ADMIN', 'PASSENGER', 'STAFF') NOT NULL,
+                    updated_at DATETIME(6),
+                    username VARCHAR(50) NOT NULL,
+                    PRIMARY KEY (id)
+                ) ENGINE=InnoDB""");
+        legacy.execute("ALTER TABLE users ADD CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)");
+        legacy.execute("ALTER TABLE users ADD CONSTRAINT UKr43af9ap4edm43mmtq01oddj6 UNIQUE (username)");
+        String hash = new BCryptPasswordEncoder(4).encode("secret123");
+        legacy.update("INSERT INTO users (active, created_at, email, password, role, updated_at, username) VALUES (TRUE, NOW(), 'first@lankarail.lk', ?, 'ADMIN', NOW(), 'legacy.first')", hash);
+        legacy.update("INSERT INTO users (id, active, email, password, role, username) VALUES (120, TRUE, 'legacy@lankarail.lk', ?, 'PASSENGER', 'legacy.user')", hash);
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void legacyDatabaseIsBaselinedAndMigratedWithItsRowsKept() {
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7"), SchemaMigrationTest.appliedVersions(jdbcTemplate));
+        assertEquals("BASELINE", jdbcTemplate.queryForObject("SELECT type FROM flyway_schema_history WHERE version = '1'", String.class));
+
+        assertEquals(List.of(1L, 120L), jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE created_at IS NULL", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE version <> 0 OR login_count <> 0", Integer.class));
+        assertEquals(121L, jdbcTemplate.queryForObject("SELECT next_val FROM users_seq", Long.class));
+
+        LoginRequest login = new LoginRequest();
+        login.setUsernameOrEmail("legacy.user");
+        login.setPassword("secret123");
+        assertEquals(120L, userService.loginUser(login).getId());
+
+        UserDTO user = new UserDTO();
+        user.setUsername("upgraded.user");
+        user.setEmail("upgraded.user@lankarail.lk");
+        user.setPassword("secret123");
+        assertTrue(userService.registerUser(user).getId() > 120);
+    }
+}
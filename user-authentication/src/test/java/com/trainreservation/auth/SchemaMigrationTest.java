@@ -0,0 +1,54 @@
+package com.trainreservation.auth;
+
+import com.trainreservation.auth.dto.LoginRequest;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the MySQL migrations on H2 in MySQL mode, with the production dialect and ddl-auto=validate,
+ * so a change to an entity without a matching migration fails here instead of at deploy time.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + SchemaMigrationTest.URL,
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+class SchemaMigrationTest {
+
+    static final String URL = "jdbc:h2:mem:migrated;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratedSchemaMatchesTheEntities() {
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7"), appliedVersions(jdbcTemplate));
+
+        UserDTO user = new UserDTO();
+        user.setUsername("migrated.user");
+        user.setEmail("migrated.user@lankarail.lk");
+        user.setPassword("secret123");
+        Long id = userService.registerUser(user).getId();
+
+        LoginRequest login = new LoginRequest();
+        login.setUsernameOrEmail("migrated.user");
+        login.setPassword("secret123");
+        assertEquals(id, userService.loginUser(login).getId());
+    }
+
+    static List<String> appliedVersions(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL ORDER BY installed_rank", String.class);
+    }
+}
@@ -0,0 +1,170 @@
+package com.trainreservation.auth.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainreservation.auth.dto.LoginRequest;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.AuditEventType;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.repository.AuditEventRepository;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import com.trainreservation.auth.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "auth.audit.flush-interval=20ms")
+@AutoConfigureMockMvc
+class AuditLogTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuditEventRepository auditEventRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void loginsAndAdminChangesAreWrittenAndPagedNewestFirst() throws Exception {
+        UserDTO user = new UserDTO();
+        user.setUsername("audit.user");
+        user.setEmail("audit.user@lankarail.lk");
+        user.setPassword("secret123");
+        Long userId = userService.registerUser(user).getId();
+
+        userService.loginUser(login("audit.user", "secret123"));
+        assertThrows(RuntimeException.class, () -> userService.loginUser(login("audit.user@lankarail.lk", "wrong-password")));
+        assertThrows(RuntimeException.class, () -> userService.loginUser(login("audit.nobody", "secret123")));
+        SecurityContextHolder.getContext().setAuthentication(admin());
+        try {
+            userService.updateUserRole(userId, UserRole.STAFF, null);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        JsonNode page = awaitEvents("?userId=" + userId, 3);
+        assertEquals(List.of("ROLE_CHANGE", "LOGIN_FAILURE", "LOGIN_SUCCESS"), types(page));
+        JsonNode roleChange = page.get("events").get(0);
+        assertEquals("PASSENGER -> STAFF", roleChange.get("detail").asText());
+        assertEquals(1, roleChange.get("actorId").asLong());
+        assertEquals("bad_password", page.get("events").get(1).get("detail").asText());
+
+        JsonNode unknown = auditPage("?type=LOGIN_FAILURE&size=200");
+        assertTrue(types(unknown).stream().allMatch("LOGIN_FAILURE"::equals));
+
+        JsonNode first = auditPage("?userId=" + userId + "&size=2");
+        assertTrue(first.get("hasMore").asBoolean());
+        JsonNode second = auditPage("?userId=" + userId + "&size=2&before=" + first.get("nextBefore").asLong());
+        assertEquals(List.of("LOGIN_SUCCESS"), types(second));
+        assertFalse(second.get("hasMore").asBoolean());
+
+        mockMvc.perform(get("/api/auth/admin/audit")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void fullBufferDropsEventsWithoutBlockingAndTheWriterCatchesUp() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> inserted = new ArrayList<>();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            synchronized (inserted) {
+                inserted.addAll(invocation.getArgument(1));
+            }
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditLog auditLog = new AuditLog(jdbcTemplate, auditEventRepository, meterRegistry, true, 4,
+                AuditLog.OverflowPolicy.DROP, Duration.ofMillis(10), 100, Duration.ofMillis(5));
+        try {
+            // The first event keeps the writer busy; the next four fill the buffer, the rest are dropped
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, 1L, null);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 10; i++) {
+                auditLog.record(AuditEventType.LOGIN_FAILURE, 1L, "bad_password");
+            }
+            assertEquals(6, meterRegistry.get("auth.audit.events.dropped").tag("reason", "buffer_full").counter().count());
+            assertEquals(4, meterRegistry.get("auth.audit.buffer.size").gauge().value());
+        } finally {
+            release.countDown();
+            auditLog.shutdown();
+        }
+        assertEquals(5, inserted.size());
+        assertEquals(5, meterRegistry.get("auth.audit.events.written").counter().count());
+    }
+
+    // Events reach the table asynchronously
+    private JsonNode awaitEvents(String query, int expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        JsonNode page = auditPage(query);
+        while (page.get("events").size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            page = auditPage(query);
+        }
+        return page;
+    }
+
+    private JsonNode auditPage(String query) throws Exception {
+        String body = mockMvc.perform(get("/api/auth/admin/audit" + query).with(asAdmin()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<String> types(JsonNode page) {
+        List<String> types = new ArrayList<>();
+        page.get("events").forEach(event -> types.add(event.get("type").asText()));
+        return types;
+    }
+
+    private static RequestPostProcessor asAdmin() {
+        return authentication(admin());
+    }
+
+    private static Authentication admin() {
+        return AuthTokenService.toAuthentication(new AuthPrincipal(1L, "admin", UserRole.ADMIN));
+    }
+
+    private static LoginRequest login(String usernameOrEmail, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsernameOrEmail(usernameOrEmail);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,55 @@
+package com.trainreservation.auth.cache;
+
+import com.trainreservation.auth.entity.User;
+import com.trainreservation.auth.entity.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCacheTest {
+
+    private final UserCache cache = new UserCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(5));
+
+    @Test
+    void rowReadBeforeAnEvictionIsNotCached() {
+        long stamp = cache.stamp();
+        User stale = user(7L, true, 3);
+        // An admin deactivation commits and evicts while the row above was being read
+        cache.evict(7L);
+        cache.put(stale, stamp);
+        assertNull(cache.getById(7L));
+        assertNull(cache.getByUsernameOrEmail("user7"));
+
+        cache.put(user(7L, false, 4), cache.stamp());
+        assertFalse(cache.getById(7L).isActive());
+    }
+
+    @Test
+    void olderVersionNeverReplacesANewerOne() {
+        cache.put(user(8L, false, 5));
+        cache.put(user(8L, true, 4));
+        assertFalse(cache.getById(8L).isActive());
+
+        cache.put(user(8L, true, 6));
+        assertTrue(cache.getById(8L).isActive());
+    }
+
+    @Test
+    void evictionDropsEveryLoginKey() {
+        cache.put(user(9L, true, 0));
+        assertEquals(9L, cache.getByUsernameOrEmail("User9").getId());
+        cache.evict(9L);
+        assertNull(cache.getByUsernameOrEmail("user9"));
+        assertNull(cache.getByUsernameOrEmail("user9@lankarail.lk"));
+    }
+
+    private static User user(Long id, boolean active, long version) {
+        return new User(id, "user" + id, "user" + id + "@lankarail.lk", "hash", UserRole.PASSENGER, active,
+                null, null, null, 0, version);
+    }
+}
@@ -0,0 +1,132 @@
+package com.trainreservation.auth.controller;
+
+import com.trainreservation.auth.config.GlobalExceptionHandler;
+import com.trainreservation.auth.dto.ErrorDTO;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.exception.ErrorCode;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import com.trainreservation.auth.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ErrorResponseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void unknownUserAndWrongPasswordAreIndistinguishable() throws Exception {
+        register("errors.known");
+        String invalid = "{\"code\":\"INVALID_CREDENTIALS\",\"message\":\"Invalid username or password\"}";
+
+        login("errors.known", "wrong-password").andExpect(status().isUnauthorized()).andExpect(content().json(invalid, JsonCompareMode.STRICT));
+        long bcryptChecks = bcryptChecks();
+        login("errors.unknown", "wrong-password").andExpect(status().isUnauthorized()).andExpect(content().json(invalid, JsonCompareMode.STRICT));
+        // The unknown login still paid for one BCrypt comparison
+        assertEquals(bcryptChecks + 1, bcryptChecks());
+    }
+
+    @Test
+    void failuresMapToTheirStatusAndCode() throws Exception {
+        UserDTO inactive = register("errors.inactive");
+        userService.deactivateUser(inactive.getId(), null);
+        login("errors.inactive", "secret123")
+                .andExpect(status().isForbidden())
+                .andExpect(content().json("{\"code\":\"ACCOUNT_DEACTIVATED\"}"));
+
+        mockMvc.perform(get("/api/auth/admin/users/{id}", Long.MAX_VALUE).with(admin()))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"code\":\"USER_NOT_FOUND\",\"message\":\"User not found\"}", JsonCompareMode.STRICT));
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"errors.inactive\",\"email\":\"other@lankarail.lk\",\"password\":\"secret123\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().json("{\"code\":\"USERNAME_TAKEN\"}"));
+    }
+
+    @Test
+    void badInputIsAClientErrorAndAnythingElseAnOpaqueServerError() throws Exception {
+        mockMvc.perform(get("/api/auth/admin/users/page").param("cursor", "not-a-cursor").with(admin()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"code\":\"INVALID_CURSOR\"}"));
+        mockMvc.perform(get("/api/auth/admin/users/export").param("format", "XML").with(admin()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"code\":\"BAD_REQUEST\"}"));
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content("{\"username\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"code\":\"BAD_REQUEST\"}"));
+
+        ResponseEntity<ErrorDTO> fault = new GlobalExceptionHandler()
+                .handleRuntimeException(new IllegalStateException("Connection to db-primary-1 refused"));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, fault.getStatusCode());
+        assertEquals("INTERNAL_ERROR", fault.getBody().getCode());
+        assertEquals("Internal server error", fault.getBody().getMessage());
+    }
+
+    @Test
+    void uniqueKeyRaceIsAConflictNotAServerError() {
+        ResponseEntity<ErrorDTO> conflict = new GlobalExceptionHandler()
+                .handleDataIntegrityViolation(new DataIntegrityViolationException("Duplicate entry 'x' for key 'users.uk_users_username'"));
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+        assertEquals(ErrorCode.CONCURRENT_UPDATE.getCode(), conflict.getBody().getCode());
+    }
+
+    @Test
+    void exceptionsAreSharedAndCarryNoStackTrace() {
+        assertSame(ErrorCode.USER_NOT_FOUND.exception(), ErrorCode.USER_NOT_FOUND.exception());
+        assertEquals(0, ErrorCode.USER_NOT_FOUND.exception().getStackTrace().length);
+        ErrorCode.USER_NOT_FOUND.exception().addSuppressed(new RuntimeException());
+        assertEquals(0, ErrorCode.USER_NOT_FOUND.exception().getSuppressed().length);
+    }
+
+    private long bcryptChecks() {
+        return meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count();
+    }
+
+    private UserDTO register(String username) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setEmail(username + "@lankarail.lk");
+        user.setPassword("secret123");
+        return userService.registerUser(user);
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"usernameOrEmail\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    private static org.springframework.test.web.servlet.request.RequestPostProcessor admin() {
+        return authentication(AuthTokenService.toAuthentication(new AuthPrincipal(0L, "admin", UserRole.ADMIN)));
+    }
+}
@@ -0,0 +1,193 @@
+package com.trainreservation.auth.controller;
+
+import com.trainreservation.auth.cache.UserAvailabilityIndex;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of JDBC statements each endpoint issues, so a change that brings back
+ * load-then-save mutations or per-request lookups shows up as a test failure.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class UserControllerSqlStatementTest {
+
+    // Seeded rows bypass users_seq, so keep them clear of the ids Hibernate hands out
+    private static final AtomicLong NEXT_ID = new AtomicLong(1_000_000);
+    private static final String HASH = "$2a$04$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5pZ1YpI6JQw9kW1kX1uT1fK";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+
+    private Statistics statistics;
+    private long adminId;
+    private long passengerId;
+
+    @BeforeEach
+    void seedUsers() {
+        jdbcTemplate.update("DELETE FROM users");
+        adminId = insertUser("admin", UserRole.ADMIN);
+        passengerId = insertUser("passenger", UserRole.PASSENGER);
+        // Rows seeded through JDBC bypass the service, so rebuild the filters from the table
+        availabilityIndex.build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void activateAndDeactivateIssueASingleUpdate() throws Exception {
+        assertStatements(1, put("/api/auth/admin/users/{id}/deactivate", passengerId));
+        assertStatements(1, put("/api/auth/admin/users/{id}/activate", passengerId));
+    }
+
+    @Test
+    void roleChangeReadsProjectionAndUpdates() throws Exception {
+        assertStatements(2, put("/api/auth/admin/users/{id}/role", passengerId).param("newRole", "STAFF"));
+    }
+
+    @Test
+    void deleteReadsProjectionForAvailabilityFiltersAndDeletes() throws Exception {
+        assertStatements(2, delete("/api/auth/admin/users/{id}", passengerId));
+    }
+
+    @Test
+    void availabilityProbeConfirmsEveryNameWithAnIndexedQuery() throws Exception {
+        assertStatements(2, get("/api/auth/availability").param("username", "newcomer").param("email", "newcomer@lankarail.lk"))
+                .andExpect(jsonPath("$.usernameAvailable").value(true))
+                .andExpect(jsonPath("$.emailAvailable").value(true));
+        assertStatements(1, get("/api/auth/availability").param("username", "passenger"))
+                .andExpect(jsonPath("$.usernameAvailable").value(false));
+        // Registered through another instance, so this instance's filters never saw it
+        insertUser("elsewhere", UserRole.PASSENGER);
+        assertStatements(1, get("/api/auth/availability").param("username", "elsewhere"))
+                .andExpect(jsonPath("$.usernameAvailable").value(false));
+    }
+
+    @Test
+    void registrationOfFreshNamesSkipsDuplicateChecks() throws Exception {
+        // The first registration may also allocate a block of ids from users_seq
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"first\",\"email\":\"first@lankarail.lk\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        // Just the INSERT; no existence SELECTs
+        assertStatements(1, post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"newcomer\",\"email\":\"newcomer@lankarail.lk\",\"password\":\"secret123\"}"));
+    }
+
+    @Test
+    void registrationOfANameTakenElsewhereIsAConflict() throws Exception {
+        insertUser("elsewhere", UserRole.PASSENGER);
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"elsewhere\",\"email\":\"fresh@lankarail.lk\",\"password\":\"secret123\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("USERNAME_TAKEN"));
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"fresh\",\"email\":\"elsewhere@lankarail.lk\",\"password\":\"secret123\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("EMAIL_TAKEN"));
+    }
+
+    @Test
+    void bulkDeactivateIssuesOneSelectAndOneUpdate() throws Exception {
+        assertStatements(2, post("/api/auth/admin/users/bulk/deactivate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userIds\":[" + passengerId + "," + adminId + ",42]}"))
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.outcomes['" + passengerId + "']").value("APPLIED"))
+                .andExpect(jsonPath("$.outcomes['" + adminId + "']").value("SKIPPED_SELF"))
+                .andExpect(jsonPath("$.outcomes['42']").value("NOT_FOUND"));
+    }
+
+    @Test
+    void passwordResetResolvesTheIdAndIssuesOneUpdate() throws Exception {
+        // The id lookup lets the reset evict the cached user by id
+        assertStatements(2, put("/api/auth/reset-password")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"passenger@lankarail.lk\",\"newPassword\":\"secret123\"}"));
+    }
+
+    @Test
+    void currentUserIsServedFromCacheAfterFirstLookup() throws Exception {
+        assertStatements(1, get("/api/auth/current-user"));
+        assertStatements(0, get("/api/auth/current-user"));
+        assertStatements(0, get("/api/auth/current-user").param("claims", "true"));
+    }
+
+    @Test
+    void conditionalCurrentUserIsAnsweredWithoutQueries() throws Exception {
+        String eTag = assertStatements(1, get("/api/auth/current-user")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        statistics.clear();
+        mockMvc.perform(get("/api/auth/current-user").header(HttpHeaders.IF_NONE_MATCH, eTag).with(admin()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listingEndpointsIssueASingleQuery() throws Exception {
+        assertStatements(1, get("/api/auth/admin/users/page").param("size", "1"));
+        assertStatements(1, get("/api/auth/admin/users/stats"));
+    }
+
+    private ResultActions assertStatements(long expected, MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+        ResultActions result = mockMvc.perform(request.with(admin()))
+                .andExpect(status().is2xxSuccessful());
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    private RequestPostProcessor admin() {
+        return authentication(AuthTokenService.toAuthentication(new AuthPrincipal(adminId, "admin", UserRole.ADMIN)));
+    }
+
+    private long insertUser(String username, UserRole role) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long id = NEXT_ID.incrementAndGet();
+        jdbcTemplate.update(
+                "INSERT INTO users (id, username, email, password, role, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                id, username, username + "@lankarail.lk", HASH, role.name(), true, now, now);
+        return id;
+    }
+}
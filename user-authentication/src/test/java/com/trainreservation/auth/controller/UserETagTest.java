@@ -0,0 +1,144 @@
+package com.trainreservation.auth.controller;
+
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.exception.AuthException;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import com.trainreservation.auth.service.UserService;
+import com.trainreservation.auth.util.UserETags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    private static int registered;
+    private UserDTO user;
+
+    @BeforeEach
+    void registerUser() {
+        UserDTO request = new UserDTO();
+        request.setUsername("etag.user" + ++registered);
+        request.setEmail(request.getUsername() + "@lankarail.lk");
+        request.setPassword("secret123");
+        user = userService.registerUser(request);
+    }
+
+    @Test
+    void staleIfMatchDoesNotOverwriteAConcurrentProfileUpdate() throws Exception {
+        String seen = eTag(get("/api/auth/current-user").with(self()));
+
+        String updated = mockMvc.perform(profileUpdate("first@lankarail.lk").header(HttpHeaders.IF_MATCH, seen))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(user.getVersion() + 1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(seen, updated);
+
+        // A second editor still holding the first tag loses instead of silently overwriting
+        mockMvc.perform(profileUpdate("second@lankarail.lk").header(HttpHeaders.IF_MATCH, seen))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("first@lankarail.lk", userService.getUserById(user.getId()).getEmail());
+
+        mockMvc.perform(get("/api/auth/current-user").with(self()).header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void adminViewsRevalidateUntilTheUserChanges() throws Exception {
+        String detail = eTag(get("/api/auth/admin/users/{id}", user.getId()).with(admin()));
+        String list = eTag(get("/api/auth/admin/users/role/{role}", UserRole.PASSENGER).with(admin()));
+        mockMvc.perform(get("/api/auth/admin/users/{id}", user.getId()).with(admin()).header(HttpHeaders.IF_NONE_MATCH, detail))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/auth/admin/users/role/{role}", UserRole.PASSENGER).with(admin()).header(HttpHeaders.IF_NONE_MATCH, list))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/auth/admin/users/{id}/deactivate", user.getId()).with(admin()).header(HttpHeaders.IF_MATCH, detail))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/auth/admin/users/{id}", user.getId()).with(admin()).header(HttpHeaders.IF_NONE_MATCH, detail))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false));
+        mockMvc.perform(get("/api/auth/admin/users/role/{role}", UserRole.PASSENGER).with(admin()).header(HttpHeaders.IF_NONE_MATCH, list))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void roleChangeAndDeleteHonourIfMatch() throws Exception {
+        String seen = eTag(get("/api/auth/admin/users/{id}", user.getId()).with(admin()));
+        String afterRoleChange = mockMvc.perform(put("/api/auth/admin/users/{id}/role", user.getId())
+                        .param("newRole", "STAFF").with(admin()).header(HttpHeaders.IF_MATCH, seen))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/auth/admin/users/{id}/role", user.getId())
+                        .param("newRole", "ADMIN").with(admin()).header(HttpHeaders.IF_MATCH, seen))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/auth/admin/users/{id}", user.getId()).with(admin()).header(HttpHeaders.IF_MATCH, seen))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals(UserRole.STAFF, userService.getUserById(user.getId()).getRole());
+
+        mockMvc.perform(delete("/api/auth/admin/users/{id}", user.getId()).with(admin()).header(HttpHeaders.IF_MATCH, afterRoleChange))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ifMatchParsing() {
+        assertNull(UserETags.expectedVersion(7L, null));
+        assertNull(UserETags.expectedVersion(7L, "*"));
+        assertEquals(3L, UserETags.expectedVersion(7L, "\"7-3\""));
+        assertEquals(3L, UserETags.expectedVersion(7L, "\"8-1\", \"7-3-12\""));
+        // Another user's tag, a weak tag or garbage can never match
+        assertThrows(AuthException.class, () -> UserETags.expectedVersion(7L, "\"70-3\""));
+        assertThrows(AuthException.class, () -> UserETags.expectedVersion(7L, "W/\"7-3\""));
+        assertThrows(AuthException.class, () -> UserETags.expectedVersion(7L, "7-3"));
+    }
+
+    private String eTag(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MockHttpServletRequestBuilder profileUpdate(String email) {
+        return put("/api/auth/users/{id}/profile", user.getId())
+                .with(self())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\"}");
+    }
+
+    private RequestPostProcessor self() {
+        return authentication(AuthTokenService.toAuthentication(new AuthPrincipal(user.getId(), user.getUsername(), UserRole.PASSENGER)));
+    }
+
+    // Not a stored user, so it never collides with the registered one in the self-delete check
+    private static RequestPostProcessor admin() {
+        return authentication(AuthTokenService.toAuthentication(new AuthPrincipal(0L, "admin", UserRole.ADMIN)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.trainreservation.auth.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks the admin listing page by page and compares it with the same ORDER BY run in one go,
+ * so a keyset predicate that skips or repeats rows at a page boundary fails here.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:user-page;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserPageTest {
+
+    private static final int USERS = 23;
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("DELETE FROM users");
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < USERS; i++) {
+            // Three users per timestamp, so pages also split rows that tie on createdAt
+            Timestamp createdAt = Timestamp.valueOf(base.plusMinutes(i / 3));
+            jdbcTemplate.update(
+                    "INSERT INTO users (id, username, email, password, role, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    7000 + (i * 7) % USERS, "page.user" + (char) ('a' + (i * 5) % USERS), "page" + i + "@lankarail.lk", "x",
+                    UserRole.values()[i % UserRole.values().length].name(), i % 4 != 0, createdAt, createdAt);
+        }
+    }
+
+    @Test
+    void everySortOrderVisitsEachUserOnceInOrder() throws Exception {
+        for (String sort : List.of("id", "createdAt", "username", "email")) {
+            String column = "createdAt".equals(sort) ? "created_at" : sort;
+            for (String direction : List.of("asc", "desc")) {
+                List<Long> expected = jdbcTemplate.queryForList(
+                        "SELECT id FROM users ORDER BY " + column + " " + direction + ", id " + direction, Long.class);
+                assertEquals(expected, walk("sort", sort, "direction", direction), sort + " " + direction);
+            }
+        }
+    }
+
+    @Test
+    void filtersHoldAcrossPages() throws Exception {
+        List<Long> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE role = 'PASSENGER' AND active ORDER BY created_at DESC, id DESC", Long.class);
+        assertFalse(expected.size() <= PAGE_SIZE);
+        assertEquals(expected, walk("role", "PASSENGER", "active", "true", "sort", "createdAt", "direction", "desc"));
+    }
+
+    @Test
+    void tamperedOrForeignCursorsAreRejected() throws Exception {
+        String cursor = page("sort", "createdAt").get("nextCursor").asText();
+        // Format: sort:direction:id[:value]
+        assertEquals("createdAt:asc:", new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).substring(0, 14));
+
+        List<String> rejected = List.of(
+                "!!" + cursor,
+                encode("createdAt:asc:7001x:2024-01-01T08:00"),
+                encode("createdAt:asc:7001:yesterday"),
+                encode("createdAt:asc:7001"),
+                encode("createdAt:asc"));
+        for (String tampered : rejected) {
+            mockMvc.perform(get("/api/auth/admin/users/page").param("sort", "createdAt").param("cursor", tampered).with(admin()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().json("{\"code\":\"INVALID_CURSOR\"}"));
+        }
+        // A cursor only continues the listing it came from
+        mockMvc.perform(get("/api/auth/admin/users/page").param("sort", "username").param("cursor", cursor).with(admin()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"code\":\"INVALID_CURSOR\"}"));
+        mockMvc.perform(get("/api/auth/admin/users/page").param("sort", "createdAt").param("direction", "desc").param("cursor", cursor).with(admin()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> walk(String... params) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String[] withCursor = Arrays.copyOf(params, params.length + 2);
+        withCursor[params.length] = "cursor";
+        JsonNode page = page(params);
+        while (true) {
+            page.get("users").forEach(user -> ids.add(user.get("id").asLong()));
+            // Bounded, so a cursor that never advances fails instead of looping
+            if (!page.get("hasMore").asBoolean() || ids.size() > USERS) {
+                return ids;
+            }
+            withCursor[params.length + 1] = page.get("nextCursor").asText();
+            page = page(withCursor);
+        }
+    }
+
+    private JsonNode page(String... params) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/auth/admin/users/page").param("size", String.valueOf(PAGE_SIZE));
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        String body = mockMvc.perform(request.with(admin()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static String encode(String payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static org.springframework.test.web.servlet.request.RequestPostProcessor admin() {
+        return authentication(AuthTokenService.toAuthentication(new AuthPrincipal(0L, "admin", UserRole.ADMIN)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.trainreservation.auth.datasource;
+
+import com.trainreservation.auth.dto.LoginRequest;
+import com.trainreservation.auth.exception.AuthException;
+import com.trainreservation.auth.exception.ErrorCode;
+import com.trainreservation.auth.service.UserService;
+import com.trainreservation.auth.util.PasswordEncoderSingleton;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The same primary and replica pair as ReadWriteRoutingTest, with the user cache on: rows that
+ * end up in the cache loginUser trusts must come from the primary.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cached-routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "auth.datasource.replica.enabled=true",
+        "auth.datasource.replica.url=jdbc:h2:mem:cached-routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        // Fails until the test creates the replica's schema, so startup reads go to the primary
+        "auth.datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+        "auth.datasource.replica.check-interval=1h"
+})
+class CachedReadRoutingTest {
+
+    private static final long USER_ID = 5100;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaMonitor replicaMonitor;
+
+    @Test
+    void lookupThatFillsTheCacheIsNotServedByALaggingReplica() {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        replica.execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        // The replica still has the account active and with its old password
+        String insert = "INSERT INTO users (id, username, email, password, role, active, created_at) VALUES (?, 'cached.user', 'cached.user@lankarail.lk', ?, 'PASSENGER', ?, NOW())";
+        primary.update(insert, USER_ID, PasswordEncoderSingleton.getInstance().encode("new-secret"), false);
+        replica.update(insert, USER_ID, PasswordEncoderSingleton.getInstance().encode("old-secret"), true);
+        replicaMonitor.check();
+
+        assertFalse(userService.getUserById(USER_ID).isActive());
+
+        LoginRequest login = new LoginRequest();
+        login.setUsernameOrEmail("cached.user");
+        login.setPassword("old-secret");
+        AuthException failure = assertThrows(AuthException.class, () -> userService.loginUser(login));
+        assertEquals(ErrorCode.WRONG_PASSWORD, failure.getCode());
+    }
+}
@@ -0,0 +1,171 @@
+package com.trainreservation.auth.datasource;
+
+import com.trainreservation.auth.dto.LoginRequest;
+import com.trainreservation.auth.dto.UserUpdateDTO;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import com.trainreservation.auth.service.UserService;
+import com.trainreservation.auth.util.PasswordEncoderSingleton;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two H2 databases stand in for a primary and its replica. Nothing replicates between them,
+ * so a row that differs tells which side served a read. The user cache is off so that every
+ * lookup reaches a database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "auth.datasource.replica.enabled=true",
+        "auth.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "auth.datasource.replica.hikari.connection-timeout=250",
+        "auth.datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+        "auth.datasource.replica.check-interval=1h",
+        "auth.cache.users.enabled=false"
+})
+class ReadWriteRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final long USER_ID = 5000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaMonitor replicaMonitor;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void seedBothSides() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        // Same schema on the replica as Hibernate created on the primary
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        replica.execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+
+        primary.update("DELETE FROM users");
+        // The replica has not caught up with the role change and email on the primary
+        insert(primary, USER_ID, "routing.user", "routing.user@lankarail.lk", UserRole.PASSENGER);
+        insert(replica, USER_ID, "routing.user", "routing.user@old.lankarail.lk", UserRole.STAFF);
+        replicaMonitor.check();
+    }
+
+    @AfterEach
+    void clearPrincipal() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        assertTrue(replicaMonitor.isAvailable());
+        assertEquals(UserRole.STAFF, userService.getUserById(USER_ID).getRole());
+        assertEquals(List.of(UserRole.STAFF), userService.getAllUsers().stream().map(user -> user.getRole()).toList());
+
+        userService.updateUserRole(USER_ID, UserRole.ADMIN, null);
+        assertEquals("ADMIN", primary.queryForObject("SELECT role FROM users WHERE id = ?", String.class, USER_ID));
+        assertEquals("STAFF", replica.queryForObject("SELECT role FROM users WHERE id = ?", String.class, USER_ID));
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        signIn(USER_ID, "routing.user");
+        UserUpdateDTO update = new UserUpdateDTO();
+        update.setEmail("routing.user@new.lankarail.lk");
+        userService.updateProfile(USER_ID, update, null);
+        assertEquals("routing.user@new.lankarail.lk", userService.getUserById(USER_ID).getEmail());
+
+        // Someone else reading the same row is still served by the replica
+        signIn(1L, "admin");
+        assertEquals("routing.user@old.lankarail.lk", userService.getUserById(USER_ID).getEmail());
+    }
+
+    @Test
+    void loginLooksUpAccountsOnThePrimary() {
+        insert(primary, USER_ID + 1, "fresh.user", "fresh.user@lankarail.lk", UserRole.PASSENGER);
+        LoginRequest login = new LoginRequest();
+        login.setUsernameOrEmail("fresh.user");
+        login.setPassword("secret123");
+        assertEquals(USER_ID + 1, userService.loginUser(login).getId());
+    }
+
+    @Test
+    void laggingReplicaIsBypassedUntilItCatchesUp() {
+        replica.update("UPDATE replica_lag SET seconds = 60");
+        replicaMonitor.check();
+        assertFalse(replicaMonitor.isAvailable());
+        assertEquals(UserRole.PASSENGER, userService.getUserById(USER_ID).getRole());
+
+        replica.update("UPDATE replica_lag SET seconds = 1");
+        replicaMonitor.check();
+        assertEquals(UserRole.STAFF, userService.getUserById(USER_ID).getRole());
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() throws Exception {
+        // Rotating the password and dropping pooled connections makes every replica checkout fail
+        try (Connection admin = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = admin.createStatement()) {
+            statement.execute("ALTER USER sa SET PASSWORD 'rotated'");
+            replicaDataSource.getHikariPoolMXBean().softEvictConnections();
+            try {
+                assertEquals(UserRole.PASSENGER, userService.getUserById(USER_ID).getRole());
+                assertFalse(replicaMonitor.isAvailable());
+            } finally {
+                statement.execute("ALTER USER sa SET PASSWORD ''");
+            }
+        }
+        // The pool backs off after failed connection attempts, so recovery can take a few checks
+        replicaMonitor.check();
+        for (int attempt = 0; attempt < 50 && !replicaMonitor.isAvailable(); attempt++) {
+            Thread.sleep(100);
+            replicaMonitor.check();
+        }
+        assertEquals(UserRole.STAFF, userService.getUserById(USER_ID).getRole());
+    }
+
+    private static void signIn(long id, String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                AuthTokenService.toAuthentication(new AuthPrincipal(id, username, UserRole.PASSENGER)));
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, long id, String username, String email, UserRole role) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(
+                "INSERT INTO users (id, username, email, password, role, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                id, username, email, PasswordEncoderSingleton.getInstance().encode("secret123"), role.name(), true, now, now);
+    }
+}
@@ -0,0 +1,125 @@
+package com.trainreservation.auth.feed;
+
+import com.trainreservation.auth.dto.UserChangeEventDTO;
+import com.trainreservation.auth.dto.UserChangesDTO;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.UserChangeType;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import com.trainreservation.auth.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserChangeFeedTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserChangeFeed userChangeFeed;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void committedChangesArePublishedInOrder() {
+        Long adminId = register("feed.admin").getId();
+        long since = userChangeFeed.changesSince(0).getLatestVersion();
+        UserDTO user = register("feed.user");
+        userService.updateUserRole(user.getId(), UserRole.STAFF, null);
+        userService.deactivateUser(user.getId(), null);
+        userService.deleteUser(user.getId(), adminId, null);
+
+        List<UserChangeEventDTO> events = userChangeFeed.changesSince(since).getEvents().stream()
+                .filter(event -> event.getUserId().equals(user.getId()))
+                .toList();
+        assertEquals(List.of(UserChangeType.CREATED, UserChangeType.ROLE_CHANGED, UserChangeType.DEACTIVATED, UserChangeType.DELETED),
+                events.stream().map(UserChangeEventDTO::getType).toList());
+        assertEquals("feed.user", events.get(0).getUsername());
+        assertEquals(UserRole.STAFF, events.get(1).getRole());
+        assertNull(events.get(1).getUsername());
+        assertEquals(Boolean.FALSE, events.get(2).getActive());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).getVersion() > events.get(i - 1).getVersion());
+        }
+    }
+
+    @Test
+    void versionsOutsideTheHistoryRequireAReset() {
+        UserChangeFeed feed = new UserChangeFeed(new SimpleMeterRegistry(), 2, Duration.ofMinutes(1), Duration.ofHours(1));
+        try {
+            for (long id = 1; id <= 3; id++) {
+                feed.publish(UserChangeType.ACTIVATED, id, null);
+            }
+            UserChangesDTO recent = feed.changesSince(1);
+            assertFalse(recent.isResetRequired());
+            assertEquals(List.of(2L, 3L), recent.getEvents().stream().map(UserChangeEventDTO::getVersion).toList());
+            assertTrue(feed.changesSince(3).getEvents().isEmpty());
+
+            // Trimmed from the history, or from before a restart
+            assertTrue(feed.changesSince(0).isResetRequired());
+            assertTrue(feed.changesSince(7).isResetRequired());
+            assertEquals(3L, feed.changesSince(7).getLatestVersion());
+        } finally {
+            feed.shutdown();
+        }
+    }
+
+    @Test
+    void streamReplaysChangesAfterLastEventId() throws Exception {
+        long since = userChangeFeed.changesSince(0).getLatestVersion();
+        UserDTO user = register("feed.stream");
+
+        MvcResult stream = mockMvc.perform(get("/api/auth/admin/users/changes/stream")
+                        .header("Last-Event-ID", since)
+                        .with(authentication(AuthTokenService.toAuthentication(new AuthPrincipal(1L, "admin", UserRole.ADMIN)))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        userService.deactivateUser(user.getId(), null);
+
+        MockHttpServletResponse response = stream.getResponse();
+        for (int attempt = 0; attempt < 50 && !response.getContentAsString().contains("\"DEACTIVATED\""); attempt++) {
+            Thread.sleep(100);
+        }
+        String body = response.getContentAsString();
+        assertTrue(body.contains("event:user-change"));
+        assertTrue(body.indexOf("\"feed.stream\"") < body.indexOf("\"DEACTIVATED\""), body);
+
+        mockMvc.perform(get("/api/auth/admin/users/changes").param("since", Long.toString(since))
+                        .with(authentication(AuthTokenService.toAuthentication(new AuthPrincipal(1L, "admin", UserRole.ADMIN)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resetRequired").value(false));
+        mockMvc.perform(get("/api/auth/admin/users/changes").param("since", "0")
+                        .with(authentication(AuthTokenService.toAuthentication(new AuthPrincipal(user.getId(), "feed.stream", UserRole.PASSENGER)))))
+                .andExpect(status().isForbidden());
+    }
+
+    private UserDTO register(String username) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setEmail(username + "@lankarail.lk");
+        user.setPassword("secret123");
+        return userService.registerUser(user);
+    }
+}
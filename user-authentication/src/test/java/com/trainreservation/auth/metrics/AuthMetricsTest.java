@@ -0,0 +1,93 @@
+package com.trainreservation.auth.metrics;
+
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import com.trainreservation.auth.service.UserService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AuthMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void loginOutcomesHashingAndSqlStatementsAreRecorded() throws Exception {
+        register("metrics.active");
+        UserDTO inactive = register("metrics.inactive");
+        userService.deactivateUser(inactive.getId(), null);
+
+        login("metrics.active", "secret123", 200);
+        login("metrics.active", "wrong-password", 401);
+        login("metrics.nobody", "secret123", 401);
+        login("metrics.inactive", "secret123", 403);
+
+        for (String outcome : new String[]{"success", "bad_password", "not_found", "deactivated"}) {
+            Timer timer = meterRegistry.find("auth.user.operation").tags("operation", "loginUser", "outcome", outcome).timer();
+            assertNotNull(timer, "No loginUser timer for outcome " + outcome);
+            assertTrue(timer.count() >= 1);
+        }
+        assertTrue(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count() >= 3);
+        DistributionSummary statements = meterRegistry.get("auth.http.sql.statements")
+                .tags("method", "POST", "uri", "/api/auth/login").summary();
+        assertTrue(statements.count() >= 4);
+        assertTrue(statements.totalAmount() >= 1);
+        assertNotNull(meterRegistry.find("cache.hit.ratio").tag("cache", "users.by-id").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").gauge());
+    }
+
+    @Test
+    void prometheusScrapeRequiresAdminWhileHealthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/prometheus").with(authentication(AuthTokenService.toAuthentication(
+                        new AuthPrincipal(1L, "admin", UserRole.ADMIN)))))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("auth_password_hash_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+
+    private UserDTO register(String username) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setEmail(username + "@lankarail.lk");
+        user.setPassword("secret123");
+        return userService.registerUser(user);
+    }
+
+    private void login(String username, String password, int expectedStatus) throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernameOrEmail\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().is(expectedStatus));
+    }
+}
@@ -0,0 +1,96 @@
+package com.trainreservation.auth.security;
+
+import com.trainreservation.auth.exception.TooManyAttemptsException;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS = 1_000;
+
+    @Test
+    void limitsEachIdentifierIndependentlyOfCase() {
+        LoginThrottle throttle = new LoginThrottle(true, 3, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 1_000);
+        for (int i = 0; i < 3; i++) {
+            throttle.check("10.0.0.1", "Alice");
+        }
+
+        TooManyAttemptsException ex = assertThrows(TooManyAttemptsException.class, () -> throttle.check("10.0.0.2", " alice"));
+        assertTrue(ex.getRetryAfterSeconds() >= 1 && ex.getRetryAfterSeconds() <= 20);
+        assertDoesNotThrow(() -> throttle.check("10.0.0.1", "bob"));
+    }
+
+    @Test
+    void limitsEachClientIpAcrossIdentifiers() {
+        LoginThrottle throttle = new LoginThrottle(true, 100, Duration.ofMinutes(1), 2, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 1_000);
+        throttle.check("10.0.0.1", "user1");
+        throttle.check("10.0.0.1", "user2");
+
+        assertThrows(TooManyAttemptsException.class, () -> throttle.check("10.0.0.1", "user3"));
+        assertDoesNotThrow(() -> throttle.check("10.0.0.2", "user3"));
+    }
+
+    @Test
+    void limitsAvailabilityProbesApartFromLogins() {
+        LoginThrottle throttle = new LoginThrottle(true, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 2, Duration.ofMinutes(1), 1_000);
+        throttle.checkAvailability("10.0.0.1");
+        throttle.checkAvailability("10.0.0.1");
+
+        assertThrows(TooManyAttemptsException.class, () -> throttle.checkAvailability("10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.checkAvailability("10.0.0.2"));
+        assertDoesNotThrow(() -> throttle.check("10.0.0.1", "dave"));
+    }
+
+    @Test
+    void refillsOverThePeriod() throws Exception {
+        LoginThrottle throttle = new LoginThrottle(true, 2, Duration.ofMillis(200), 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 1_000);
+        throttle.check("10.0.0.1", "carol");
+        throttle.check("10.0.0.1", "carol");
+        assertThrows(TooManyAttemptsException.class, () -> throttle.check("10.0.0.1", "carol"));
+
+        Thread.sleep(250);
+        assertDoesNotThrow(() -> throttle.check("10.0.0.1", "carol"));
+    }
+
+    @Test
+    void concurrentChecksNeverGrantMoreThanTheBucketHolds() throws Exception {
+        LoginThrottle throttle = new LoginThrottle(true, ATTEMPTS, Duration.ofHours(1), ATTEMPTS * THREADS, Duration.ofHours(1), 100, Duration.ofMinutes(1), 1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int i = 0; i < ATTEMPTS; i++) {
+                    try {
+                        throttle.check("10.0.0.1", "hot-user");
+                        granted++;
+                    } catch (TooManyAttemptsException e) {
+                        // Expected once the shared bucket is empty
+                    }
+                }
+                return granted;
+            }));
+        }
+        start.countDown();
+        int granted = 0;
+        for (Future<Integer> future : futures) {
+            granted += future.get();
+        }
+        executor.shutdown();
+        assertEquals(ATTEMPTS, granted);
+    }
+}
@@ -0,0 +1,120 @@
+package com.trainreservation.auth.security;
+
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.service.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:token-auth;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "auth.mode=token",
+        "auth.token.secret=" + TokenAuthenticationTest.SECRET
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TokenAuthenticationTest {
+
+    static final String SECRET = "test-secret-that-is-at-least-32-bytes-long";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    private UserDTO user;
+    private String token;
+
+    @BeforeAll
+    void register() {
+        UserDTO registration = new UserDTO();
+        registration.setUsername("token.user");
+        registration.setEmail("token.user@lankarail.lk");
+        registration.setPassword("secret123");
+        user = userService.registerUser(registration);
+    }
+
+    @BeforeEach
+    void login() throws Exception {
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernameOrEmail\":\"token.user\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        token = login.getResponse().getHeader(AuthTokenService.TOKEN_HEADER);
+        assertNotNull(token);
+        assertNull(login.getRequest().getSession(false));
+    }
+
+    @Test
+    void validTokenAuthenticatesWithoutASession() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/auth/current-user").param("claims", "true")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("token.user"))
+                .andExpect(jsonPath("$.role").value("PASSENGER"))
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+        assertFalse(result.getResponse().getHeaders(HttpHeaders.SET_COOKIE).stream().anyMatch(cookie -> cookie.startsWith("JSESSIONID")));
+    }
+
+    @Test
+    void tamperedTokensAreRejected() throws Exception {
+        int dot = token.indexOf('.');
+        String payload = token.substring(0, dot);
+        String signature = token.substring(dot + 1);
+
+        // Same signature over a payload that claims the ADMIN role
+        String claims = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
+        String escalated = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(claims.replace(":PASSENGER:", ":ADMIN:").getBytes(StandardCharsets.UTF_8));
+        assertUnauthorized("Bearer " + escalated + "." + signature);
+
+        // One changed signature character; the first, as the last one partly encodes padding
+        char first = signature.charAt(0);
+        assertUnauthorized("Bearer " + payload + "." + (first == 'A' ? 'B' : 'A') + signature.substring(1));
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws Exception {
+        // Same key, so only the expiry claim can make it fail
+        String expired = new AuthTokenService("token", SECRET, Duration.ofMinutes(-1), false).issue(user);
+        assertUnauthorized("Bearer " + expired);
+    }
+
+    @Test
+    void malformedBearerHeadersAreRejected() throws Exception {
+        for (String header : List.of("Bearer", "Bearer ", "Bearer not-a-token", "Bearer .", "Bearer a.b.c",
+                "Bearer " + token.substring(0, token.indexOf('.')), "Bearer !!!." + token.substring(token.indexOf('.') + 1),
+                "Basic " + token)) {
+            assertUnauthorized(header);
+        }
+    }
+
+    private void assertUnauthorized(String authorization) throws Exception {
+        mockMvc.perform(get("/api/auth/current-user").param("claims", "true")
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isUnauthorized());
+    }
+}
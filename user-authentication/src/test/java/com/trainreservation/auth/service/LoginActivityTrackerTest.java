@@ -0,0 +1,100 @@
+package com.trainreservation.auth.service;
+
+import com.trainreservation.auth.dto.LoginRequest;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.dto.UserPageRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Scheduled flushes are pushed out of the way; the test flushes explicitly
+@SpringBootTest(properties = "auth.login-activity.flush-interval=1h")
+class LoginActivityTrackerTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoginActivityTracker loginActivityTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loginsAreCoalescedInMemoryAndWrittenInOneFlush() {
+        Long frequentId = register("activity.frequent");
+        Long onceId = register("activity.once");
+        Long dormantId = register("activity.dormant");
+        loginActivityTracker.flush();
+
+        for (int i = 0; i < 3; i++) {
+            login("activity.frequent");
+        }
+        login("activity.once");
+
+        // Nothing written yet, but the admin view already includes the pending logins
+        assertEquals(0L, loginCountInTable(frequentId));
+        UserDTO pendingView = userService.getUserDetails(frequentId);
+        assertEquals(3L, pendingView.getLoginCount());
+        assertNotNull(pendingView.getLastLoginAt());
+
+        assertEquals(2, loginActivityTracker.flush());
+        assertEquals(3L, loginCountInTable(frequentId));
+        assertEquals(1L, loginCountInTable(onceId));
+        assertEquals(3L, userService.getUserDetails(frequentId).getLoginCount());
+        UserDTO dormant = userService.getUserDetails(dormantId);
+        assertEquals(0L, dormant.getLoginCount());
+        assertNull(dormant.getLastLoginAt());
+
+        UserPageRequest dormantPage = new UserPageRequest();
+        dormantPage.setLastLoginBefore(LocalDateTime.now().minusDays(1));
+        dormantPage.setSize(200);
+        List<Long> dormantIds = userService.getUsersPage(dormantPage).getUsers().stream().map(UserDTO::getId).toList();
+        assertTrue(dormantIds.contains(dormantId));
+        assertFalse(dormantIds.contains(frequentId));
+        assertFalse(dormantIds.contains(onceId));
+    }
+
+    @Test
+    void aFlushNeverMovesTheLastLoginBackwards() {
+        Long userId = register("activity.clock");
+        LocalDateTime later = LocalDateTime.now().plusDays(1).withNano(0);
+        jdbcTemplate.update("UPDATE users SET last_login_at = ?, login_count = 7 WHERE id = ?", Timestamp.valueOf(later), userId);
+
+        login("activity.clock");
+        loginActivityTracker.flush();
+
+        assertEquals(8L, loginCountInTable(userId));
+        assertEquals(later, jdbcTemplate.queryForObject("SELECT last_login_at FROM users WHERE id = ?", Timestamp.class, userId)
+                .toLocalDateTime());
+    }
+
+    private long loginCountInTable(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT login_count FROM users WHERE id = ?", Long.class, userId);
+    }
+
+    private Long register(String username) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setEmail(username + "@lankarail.lk");
+        user.setPassword("secret123");
+        return userService.registerUser(user).getId();
+    }
+
+    private void login(String username) {
+        LoginRequest request = new LoginRequest();
+        request.setUsernameOrEmail(username);
+        request.setPassword("secret123");
+        userService.loginUser(request);
+    }
+}
@@ -0,0 +1,76 @@
+package com.trainreservation.auth.service;
+
+import com.trainreservation.auth.dto.PasswordHashingMetricsDTO;
+import com.trainreservation.auth.exception.HashingCapacityExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One hashing thread and a one-slot queue, so a single slow hash saturates the pool and both
+ * ways of shedding load, a queued task timing out and the queue refusing a task, can be driven
+ * through the register endpoint.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hashing-shed;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "auth.hashing.threads=1",
+        "auth.hashing.queue-capacity=1",
+        "auth.hashing.max-wait=100ms",
+        "auth.hashing.retry-after-seconds=7"
+})
+@AutoConfigureMockMvc
+class PasswordHashingLoadSheddingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Test
+    void saturatedPoolAnswers503WithRetryAfter() throws Exception {
+        // A cost 14 hash keeps the only hashing thread busy for about a second. Its caller gives
+        // up after max-wait like any other, but BCrypt ignores the interrupt and runs on
+        String slowHash = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret123").replace("$04$", "$14$");
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("secret123", slowHash));
+        ExecutionException abandoned = assertThrows(ExecutionException.class, () -> busy.get(1, TimeUnit.MINUTES));
+        assertInstanceOf(HashingCapacityExceededException.class, abandoned.getCause());
+        assertEquals(1, passwordHashingService.getMetrics().getActiveThreads());
+        PasswordHashingMetricsDTO before = passwordHashingService.getMetrics();
+
+        // Queued behind it for longer than max-wait; the cancelled task keeps its queue slot
+        register("shed.timeout").andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"))
+                .andExpect(jsonPath("$.code").value("SERVICE_BUSY"));
+        assertEquals(before.getTimedOutTasks() + 1, passwordHashingService.getMetrics().getTimedOutTasks());
+
+        // The queue is full, so the executor rejects the task outright
+        register("shed.rejected").andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"))
+                .andExpect(jsonPath("$.code").value("SERVICE_BUSY"));
+        assertEquals(before.getRejectedTasks() + 1, passwordHashingService.getMetrics().getRejectedTasks());
+    }
+
+    private ResultActions register(String username) throws Exception {
+        return mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"email\":\"" + username + "@lankarail.lk\",\"password\":\"secret123\"}"));
+    }
+}
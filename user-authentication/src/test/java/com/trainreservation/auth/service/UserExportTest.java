@@ -0,0 +1,108 @@
+package com.trainreservation.auth.service;
+
+import com.trainreservation.auth.dto.UserExportFormat;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports a few hundred thousand users through the streaming path.
+ * Runs in its own surefire execution with a small heap (see pom.xml), so materializing
+ * the table as entities or DTOs would fail with OutOfMemoryError.
+ *
+ * The rows would not fit that heap in an in-memory database either, so they live in a file
+ * database named per run, which is deleted afterwards; a run that dies halfway cannot leave
+ * rows behind for the next one.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserExportTest {
+
+    private static final int USER_COUNT = 300_000;
+    private static final int BATCH_SIZE = 5_000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:./target/h2/user-export-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;LAZY_QUERY_EXECUTION=TRUE");
+    }
+
+    @BeforeAll
+    void seedUsers() {
+        String hash = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5pZ1YpI6JQw9kW1kX1uT1fK";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int start = 0; start < USER_COUNT; start += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < start + BATCH_SIZE; i++) {
+                batch.add(new Object[]{(long) i + 1, "passenger" + i, "passenger" + i + "@lankarail.lk", hash, "PASSENGER", true, now, now});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (id, username, email, password, role, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    batch);
+        }
+    }
+
+    @AfterAll
+    void deleteDatabase() {
+        // Removes the files once the pool closes the database at context shutdown
+        jdbcTemplate.execute("DROP ALL OBJECTS DELETE FILES");
+    }
+
+    @Test
+    void exportsNdjsonWithoutMaterializingTheTable() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long rows = userService.exportUsers(UserExportFormat.NDJSON, out);
+
+        assertEquals(USER_COUNT, rows);
+        assertEquals(USER_COUNT, out.lines);
+    }
+
+    @Test
+    void exportsCsvWithHeader() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long rows = userService.exportUsers(UserExportFormat.CSV, out);
+
+        assertEquals(USER_COUNT, rows);
+        assertEquals(USER_COUNT + 1, out.lines);
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.trainreservation.auth.service;
+
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.dto.UserExportFormat;
+import com.trainreservation.auth.dto.UserImportErrorDTO;
+import com.trainreservation.auth.dto.UserImportResultDTO;
+import com.trainreservation.auth.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports a partner-sized file through the chunked pipeline and checks both the per-row
+ * error report and its throughput. BCrypt dominates the cost even at strength 4, so the floor
+ * is relative to single-threaded hashing on this host: parsing, duplicate checks and batched
+ * inserts may cost at most 40% of it, and parallel hashing only raises the figure.
+ */
+@SpringBootTest
+class UserImportTest {
+
+    private static final int USER_COUNT = 10_000;
+    private static final int HASH_SAMPLE = 500;
+    private static final double MIN_FRACTION_OF_HASH_RATE = 0.6;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Test
+    void importsCsvInBatchesAboveThroughputFloor() throws Exception {
+        StringBuilder csv = new StringBuilder("username,email,password,role\n");
+        for (int i = 0; i < USER_COUNT; i++) {
+            csv.append("partner").append(i).append(',')
+                    .append("partner").append(i).append("@partnerrail.lk,secret123,PASSENGER\n");
+        }
+
+        double hashesPerSecond = measureSingleThreadedHashRate();
+        UserImportResultDTO result = import_(UserExportFormat.CSV, csv.toString());
+
+        assertEquals(USER_COUNT, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertTrue(userRepository.findByUsername("partner" + (USER_COUNT - 1)).isPresent());
+        double floor = hashesPerSecond * MIN_FRACTION_OF_HASH_RATE;
+        assertTrue(result.getUsersPerSecond() >= floor,
+                "Import throughput " + result.getUsersPerSecond() + " users/sec is below " + floor);
+    }
+
+    @Test
+    void reportsRejectedRowsByLine() throws Exception {
+        UserDTO existing = new UserDTO();
+        existing.setUsername("existing.staff");
+        existing.setEmail("existing.staff@lankarail.lk");
+        existing.setPassword("secret123");
+        userService.registerUser(existing);
+
+        String ndjson = String.join("\n",
+                "{\"username\":\"ndjson.ok\",\"email\":\"ndjson.ok@lankarail.lk\",\"password\":\"secret123\",\"role\":\"STAFF\"}",
+                "{\"username\":\"ndjson.ok\",\"email\":\"other@lankarail.lk\",\"password\":\"secret123\"}",
+                "{\"username\":\"existing.staff\",\"email\":\"fresh@lankarail.lk\",\"password\":\"secret123\"}",
+                "{\"username\":\"bad.email\",\"email\":\"not-an-email\",\"password\":\"secret123\"}",
+                "{\"username\":\"short.pw\",\"email\":\"short.pw@lankarail.lk\",\"password\":\"123\"}",
+                "{\"username\":\"bad.role\",\"email\":\"bad.role@lankarail.lk\",\"password\":\"secret123\",\"role\":\"DRIVER\"}",
+                "not json");
+
+        UserImportResultDTO result = import_(UserExportFormat.NDJSON, ndjson);
+
+        assertEquals(7, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        assertEquals(6, result.getFailed());
+        Map<Long, String> errors = result.getErrors().stream()
+                .collect(Collectors.toMap(UserImportErrorDTO::getLine, UserImportErrorDTO::getMessage));
+        assertEquals("Duplicate username in file", errors.get(2L));
+        assertEquals("Username already exists", errors.get(3L));
+        assertEquals("Invalid email format", errors.get(4L));
+        assertEquals("Password must be at least 6 characters", errors.get(5L));
+        assertEquals("Unknown role: DRIVER", errors.get(6L));
+        assertEquals("Malformed JSON", errors.get(7L));
+    }
+
+    private double measureSingleThreadedHashRate() {
+        for (int i = 0; i < HASH_SAMPLE; i++) {
+            passwordHashingService.encodeInline("warm-up");
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < HASH_SAMPLE; i++) {
+            passwordHashingService.encodeInline("secret123");
+        }
+        return HASH_SAMPLE * 1_000_000_000.0 / (System.nanoTime() - startedAt);
+    }
+
+    private UserImportResultDTO import_(UserExportFormat format, String body) throws Exception {
+        return userImportService.importUsers(format, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
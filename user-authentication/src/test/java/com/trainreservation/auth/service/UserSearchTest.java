@@ -0,0 +1,102 @@
+package com.trainreservation.auth.service;
+
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.dto.UserSearchPageDTO;
+import com.trainreservation.auth.dto.UserSearchRequest;
+import com.trainreservation.auth.dto.UserUpdateDTO;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserSearchTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void searchFollowsRegistrationsRenamesAndDeletes() {
+        Long kamal = register("kamal.search", "kamal.search@lankarail.lk");
+        Long nimal = register("nimal.search", "kamal.nimal.search@lankarail.lk");
+
+        assertEquals(List.of(kamal, nimal), ids(search("kamal.", 0, 10)));
+        assertEquals(List.of(kamal, nimal), ids(search("al.sea", 0, 10)));
+
+        UserUpdateDTO update = new UserUpdateDTO();
+        update.setUsername("sunil.search");
+        update.setEmail("sunil.search@lankarail.lk");
+        userService.updateProfile(kamal, update, null);
+        assertEquals(List.of(nimal), ids(search("kamal.", 0, 10)));
+        assertEquals(List.of(kamal), ids(search("sunil.sea", 0, 10)));
+
+        userService.deleteUser(nimal, 1L, null);
+        assertEquals(List.of(), ids(search("kamal.", 0, 10)));
+
+        register("search.page.a", "search.page.a@lankarail.lk");
+        register("search.page.b", "search.page.b@lankarail.lk");
+        UserSearchPageDTO page = userService.searchUsers(request("search.page", 0, 1));
+        assertTrue(page.isHasMore());
+        assertEquals(1, page.getNextPage());
+        UserSearchPageDTO last = userService.searchUsers(request("search.page", 1, 1));
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextPage());
+    }
+
+    @Test
+    void searchIsOpenToStaffOnly() throws Exception {
+        register("staff.lookup", "staff.lookup@lankarail.lk");
+        mockMvc.perform(get("/api/auth/staff/users/search").param("q", "staff.look")
+                        .with(authentication(AuthTokenService.toAuthentication(new AuthPrincipal(2L, "staff", UserRole.STAFF)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].username").value("staff.lookup"));
+        mockMvc.perform(get("/api/auth/staff/users/search").param("q", "staff.look")
+                        .with(authentication(AuthTokenService.toAuthentication(new AuthPrincipal(3L, "passenger", UserRole.PASSENGER)))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/auth/staff/users/search").param("q", "s")
+                        .with(authentication(AuthTokenService.toAuthentication(new AuthPrincipal(2L, "staff", UserRole.STAFF)))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<UserDTO> search(String q, int page, int size) {
+        return userService.searchUsers(request(q, page, size)).getUsers();
+    }
+
+    private static UserSearchRequest request(String q, int page, int size) {
+        UserSearchRequest request = new UserSearchRequest();
+        request.setQ(q);
+        request.setPage(page);
+        request.setSize(size);
+        return request;
+    }
+
+    private static List<Long> ids(List<UserDTO> users) {
+        return users.stream().map(UserDTO::getId).toList();
+    }
+
+    private Long register(String username, String email) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword("secret123");
+        return userService.registerUser(user).getId();
+    }
+}
@@ -0,0 +1,92 @@
+package com.trainreservation.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trainreservation.auth.dto.UserDTO;
+import com.trainreservation.auth.dto.UserStatsDTO;
+import com.trainreservation.auth.entity.UserRole;
+import com.trainreservation.auth.repository.UserRepository;
+import com.trainreservation.auth.security.AuthPrincipal;
+import com.trainreservation.auth.security.AuthTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-stats;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "auth.stats.in-memory-counters=true",
+        "auth.stats.refresh-interval=1h"
+})
+@AutoConfigureMockMvc
+class UserStatsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserStatsCounter userStatsCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countersFollowEveryMutationAndMatchTheTable() throws Exception {
+        userStatsCounter.refresh();
+        UserDTO kept = register("stats.kept");
+        UserDTO deactivated = register("stats.deactivated");
+        UserDTO promoted = register("stats.promoted");
+        UserDTO deleted = register("stats.deleted");
+        userService.deactivateUser(deactivated.getId(), null);
+        userService.updateUserRole(promoted.getId(), UserRole.STAFF, null);
+        userService.deleteUser(deleted.getId(), kept.getId(), null);
+
+        UserStatsDTO expected = UserStatsCounter.fromAggregates(userRepository.countByRoleAndActive());
+        assertEquals(expected, stats());
+        assertEquals(1, expected.getInactiveUsers());
+        assertEquals(1, expected.getStaffCount());
+    }
+
+    @Test
+    void refreshPicksUpWritesFromOtherInstances() throws Exception {
+        UserStatsDTO before = stats();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, role, active, created_at) VALUES (9100, 'stats.elsewhere', 'stats.elsewhere@lankarail.lk', 'x', 'ADMIN', TRUE, NOW())");
+        assertEquals(before, stats());
+
+        userStatsCounter.refresh();
+        UserStatsDTO after = stats();
+        assertEquals(before.getTotalUsers() + 1, after.getTotalUsers());
+        assertEquals(before.getAdminCount() + 1, after.getAdminCount());
+    }
+
+    private UserStatsDTO stats() throws Exception {
+        String body = mockMvc.perform(get("/api/auth/admin/users/stats")
+                        .with(authentication(AuthTokenService.toAuthentication(new AuthPrincipal(0L, "admin", UserRole.ADMIN)))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, UserStatsDTO.class);
+    }
+
+    private UserDTO register(String username) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setEmail(username + "@lankarail.lk");
+        user.setPassword("secret123");
+        return userService.registerUser(user);
+    }
+}
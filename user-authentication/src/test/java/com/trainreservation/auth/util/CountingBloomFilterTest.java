@@ -0,0 +1,41 @@
+package com.trainreservation.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountingBloomFilterTest {
+
+    private static final int KEYS = 50_000;
+
+    @Test
+    void neverReportsFalseNegativesAndStaysNearTargetRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) {
+            filter.add("user" + i);
+        }
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (filter.mightContain("stranger" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < KEYS * 0.02, "False positive rate too high: " + falsePositives + "/" + KEYS);
+    }
+
+    @Test
+    void removeClearsOnlyTheRemovedKey() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add("alice");
+        filter.add("bob");
+        filter.remove("alice");
+
+        assertFalse(filter.mightContain("alice"));
+        assertTrue(filter.mightContain("bob"));
+    }
+}
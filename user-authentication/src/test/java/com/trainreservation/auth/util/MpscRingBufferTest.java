@@ -0,0 +1,70 @@
+package com.trainreservation.auth.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+
+    @Test
+    void rejectsOffersWhenFullAndKeepsFifoOrder() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, buffer.drain(drained::add, 10));
+        assertEquals(List.of(1, 2, 3, 4), drained);
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = first; i < first + perProducer; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        BitSet seen = new BitSet(producers * perProducer);
+        int received = 0;
+        while (received < producers * perProducer) {
+            Integer value = buffer.poll();
+            if (value == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertFalse(seen.get(value), "Duplicate " + value);
+            seen.set(value);
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, seen.cardinality());
+        assertTrue(buffer.isEmpty());
+    }
+}
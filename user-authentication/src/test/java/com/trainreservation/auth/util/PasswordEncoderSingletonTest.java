@@ -0,0 +1,64 @@
+package com.trainreservation.auth.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordEncoderSingletonTest {
+
+    // The singleton is shared with the application contexts of other tests
+    private final int strength = PasswordEncoderSingleton.getStrength();
+
+    @AfterEach
+    void restoreStrength() {
+        PasswordEncoderSingleton.useStrength(strength);
+    }
+
+    @Test
+    void pinnedCostUpgradesOnlyWeakerHashes() {
+        PasswordEncoderSingleton.useStrength(5);
+        assertTrue(PasswordEncoderSingleton.needsRehash(hash(4)));
+        assertFalse(PasswordEncoderSingleton.needsRehash(hash(5)));
+        assertFalse(PasswordEncoderSingleton.needsRehash(hash(6)));
+        // Unprefixed hashes from before the {id} format
+        assertTrue(PasswordEncoderSingleton.needsRehash(new BCryptPasswordEncoder(5).encode("secret123")));
+    }
+
+    @Test
+    void calibratedInstancesLeaveEachOthersHashesAlone() {
+        // A target no cost can meet settles on the minimum
+        PasswordEncoderSingleton.calibrate(Duration.ofNanos(1), 4, 6);
+        assertEquals(4, PasswordEncoderSingleton.getStrength());
+        assertEquals(4, PasswordEncoderSingleton.getRehashBelow());
+        // Written by an instance on faster hardware that calibrated higher
+        assertFalse(PasswordEncoderSingleton.needsRehash(hash(6)));
+    }
+
+    @Test
+    void calibratingAboveTheFloorLeavesFloorCostHashesAlone() {
+        // A target every cost meets settles on the maximum
+        PasswordEncoderSingleton.calibrate(Duration.ofHours(1), 4, 5);
+        assertEquals(5, PasswordEncoderSingleton.getStrength());
+        assertEquals(4, PasswordEncoderSingleton.getRehashBelow());
+        assertFalse(PasswordEncoderSingleton.needsRehash(hash(4)));
+        assertFalse(PasswordEncoderSingleton.needsRehash(hash(5)));
+    }
+
+    @Test
+    void malformedHashesAreRehashedInsteadOfFailing() {
+        String valid = hash(5);
+        assertTrue(PasswordEncoderSingleton.needsRehash(valid.replace("$05$", "$x5$")));
+        assertTrue(PasswordEncoderSingleton.needsRehash(valid.substring(0, valid.length() - 1)));
+        assertTrue(PasswordEncoderSingleton.needsRehash("{bcrypt}"));
+        assertTrue(PasswordEncoderSingleton.needsRehash("{noop}secret123"));
+    }
+
+    private static String hash(int cost) {
+        return "{" + PasswordEncoderSingleton.BCRYPT_ID + "}" + new BCryptPasswordEncoder(cost).encode("secret123");
+    }
+}
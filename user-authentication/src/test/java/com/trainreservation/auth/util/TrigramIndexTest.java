@@ -0,0 +1,47 @@
+package com.trainreservation.auth.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    @Test
+    void ranksExactThenPrefixThenSubstringMatches() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "kamal.perera", "kamal.perera@lankarail.lk");
+        index.add(2, "nimal", "nimal.kamal@lankarail.lk");
+        index.add(3, "kamal", "kp@lankarail.lk");
+        index.add(4, "sunil", "sunil@lankarail.lk");
+
+        assertEquals(List.of(3L, 1L, 2L), index.search("kamal", 0, 10));
+        assertEquals(List.of(1L), index.search("perera@lank", 0, 10));
+        assertEquals(List.of(3L), index.search("kp@lankarail.lk", 0, 10));
+        assertEquals(List.of(1L, 3L), index.search("ka", 0, 10));
+        assertEquals(List.of(), index.search("lankarail", 0, 10));
+    }
+
+    @Test
+    void pagesThroughMatchesAndForgetsRemovedUsers() {
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < 30; i++) {
+            index.add(i, "passenger" + i, "passenger" + i + "@lankarail.lk");
+        }
+        // passenger1 itself is the exact match, passenger10..19 follow as prefix matches
+        assertEquals(List.of(1L, 10L, 11L, 12L, 13L), index.search("passenger1", 0, 5));
+        assertEquals(List.of(14L, 15L, 16L), index.search("passenger1", 5, 3));
+        assertEquals(11, index.search("passenger1", 0, 100).size());
+        assertEquals(List.of(2L, 20L, 21L), index.search("assenger2", 0, 3));
+
+        index.remove(12, "passenger12");
+        index.add(12, "renamed12", "passenger12@lankarail.lk");
+        assertTrue(index.search("passenger1", 0, 100).contains(12L));
+        assertEquals(List.of(12L), index.search("renamed", 0, 10));
+        index.remove(12, "renamed12");
+        assertFalse(index.search("passenger1", 0, 100).contains(12L));
+        assertEquals(29, index.size());
+    }
+}